@@ -195,6 +195,7 @@ public class CXMLClientModule extends BasicGeneratingModule implements ApiFeatur
       URL apiTemplate = getTemplateURL("api.fmt");
       try {
         processTemplate(apiTemplate, model);
+        debug("Class name conversions: %s cache hits, %s misses (%.1f%% hit rate).", classnameFor.getCacheHits(), classnameFor.getCacheMisses(), classnameFor.getCacheHitRate() * 100);
       }
       catch (IOException e) {
         throw new EnunciateException(e);
@@ -14,9 +14,74 @@
  * limitations under the License.
  */
 #define DEBUG_ENUNCIATE 0 //set to '1' or '2' for output debugging.
-#include <api.c>
+#include <stdlib.h>
 #include <stdio.h>
 
+/**
+ * The item most recently passed to a handler callback.
+ */
+static void *handled_item = NULL;
+
+/**
+ * The number of items passed to a handler callback that were freed before the next item was passed.
+ */
+static int handled_items_freed = 0;
+
+/**
+ * Frees memory, counting the frees of the items passed to the handler callbacks.
+ */
+static void free_and_count_handled_items(void *ptr) {
+  if (ptr != NULL && ptr == handled_item) {
+    handled_items_freed++;
+    handled_item = NULL;
+  }
+  free(ptr);
+}
+
+#define free(ptr) free_and_count_handled_items(ptr)
+#include <api.c>
+#include <sys/resource.h>
+
+/**
+ * The context of the canvas handler.
+ */
+struct canvas_handler_context {
+
+  /**
+   * The number of items passed to the callbacks.
+   */
+  int handled;
+
+  /**
+   * The number of items after which to abort the read (0 to read everything).
+   */
+  int abort_after;
+};
+
+static int handle_canvas_item(const char *kind, xmlChar *id, void *item, void *context) {
+  struct canvas_handler_context *handler_context = (struct canvas_handler_context *) context;
+  handled_item = item;
+  handler_context->handled++;
+  printf("item: %s %s\n", kind, id == NULL ? "" : (char *) id);
+  return handler_context->abort_after > 0 && handler_context->handled >= handler_context->abort_after;
+}
+
+static int handle_circle(struct api_shapes_circle *item, void *context) {
+  return handle_canvas_item("circle", item->id, item, context);
+}
+
+static int handle_rectangle(struct api_shapes_rectangle *item, void *context) {
+  return handle_canvas_item("rectangle", item->id, item, context);
+}
+
+static int handle_triangle(struct api_shapes_triangle *item, void *context) {
+  return handle_canvas_item("triangle", item->id, item, context);
+}
+
+static int handle_line(struct api_shapes_line *item, void *context) {
+  return handle_canvas_item("line", item->id, item, context);
+}
+
 int main ( int argc, char *argv[] ) {
   xmlTextReaderPtr reader;
   xmlTextWriterPtr writer;
@@ -26,13 +91,23 @@ int main ( int argc, char *argv[] ) {
   struct api_shapes_rectangle *rectangle;
   struct api_animals_cat *cat;
   struct api_draw_canvas *canvas;
+  struct api_draw_canvas_handler canvas_handler;
+  struct canvas_handler_context canvas_handler_context;
   struct api_structures_house *house;
   struct api_vehicles_bus *bus;
-  if (argc != 4) {
-    printf("Usage: %s [cat|canvas|house|bus|circle|triangle|rectangle] [infile] [outfile]", argv[0]);
+  struct enunciate_arena *arena = NULL;
+  struct rusage usage;
+  if (argc != 4 && argc != 5) {
+    printf("Usage: %s [cat|canvas|canvas-handler|house|bus|circle|triangle|rectangle] [infile] [outfile] [heap|arena|abort-after]", argv[0]);
     return 1;
   }
 
+  if (argc == 5 && strcmp("arena", argv[4]) == 0) {
+    //read the whole document into a single arena (the "free" functions are no-ops for arena memory while it's active).
+    arena = enunciate_arena_create(0);
+    enunciate_arena_activate(arena);
+  }
+
   reader = xmlReaderForFile(argv[2], NULL, 0);
   writer = xmlNewTextWriterFilename(argv[3], 0);
   if (strcmp("circle", argv[1]) == 0) {
@@ -170,6 +245,35 @@ int main ( int argc, char *argv[] ) {
     printf("Successfully freed the reader.\n");
 #endif
   }
+  else if (strcmp("canvas-handler", argv[1]) == 0) {
+    //pass the shapes and lines to the handler, aborting after the number of items given as the last argument (if any).
+    memset(&canvas_handler, 0, sizeof(canvas_handler));
+    canvas_handler_context.handled = 0;
+    canvas_handler_context.abort_after = argc == 5 ? atoi(argv[4]) : 0;
+    canvas_handler.circle_shapes = handle_circle;
+    canvas_handler.rectangle_shapes = handle_rectangle;
+    canvas_handler.triangle_shapes = handle_triangle;
+    canvas_handler.lines = handle_line;
+    canvas_handler.context = &canvas_handler_context;
+    canvas = xml_read_api_draw_canvas_with_handler(reader, &canvas_handler);
+    printf("freed: %i\n", handled_items_freed);
+
+    if (canvas == NULL) {
+      printf("aborted: %i\n", canvas_handler_context.handled);
+    }
+    else {
+      status = xml_write_api_draw_canvas(writer, canvas);
+      if (status < 0) {
+        //panic
+        printf("Problem writing canvas.");
+        return 1;
+      }
+
+      free_api_draw_canvas(canvas); //free the canvas.
+    }
+    xmlFreeTextWriter(writer); //free the writer
+    xmlFreeTextReader(reader); //free the reader
+  }
   else if (strcmp("house", argv[1]) == 0) {
     house = xml_read_api_structures_house(reader);
     house->style = xml_convert_known_api_structures_houseStyle(xml_get_known_api_structures_houseStyle(house->style));
@@ -227,9 +331,16 @@ int main ( int argc, char *argv[] ) {
 #endif
   }
   else {
-    printf("Unrecognized xml type: %s\nUsage: %s [cat|canvas|house|bus||circle|triangle|rectangle] [infile] [outfile]", argv[1], argv[0]);
+    printf("Unrecognized xml type: %s\nUsage: %s [cat|canvas|canvas-handler|house|bus||circle|triangle|rectangle] [infile] [outfile] [heap|arena|abort-after]", argv[1], argv[0]);
     return 1;
   }
 
+  enunciate_arena_release(arena);
+  if (argc == 5) {
+    //report the peak resident set size so the caller can measure memory usage.
+    getrusage(RUSAGE_SELF, &usage);
+    printf("maxrss: %ld\n", usage.ru_maxrss);
+  }
+
   return 0;
 }
\ No newline at end of file
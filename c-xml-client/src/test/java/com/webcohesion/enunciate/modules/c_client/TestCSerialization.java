@@ -36,6 +36,7 @@ import java.io.BufferedReader;
 import java.io.File;
 import java.io.InputStreamReader;
 import java.util.*;
+import java.util.logging.Logger;
 
 /**
  * Makes sure C serialization is working correctly.
@@ -44,6 +45,8 @@ import java.util.*;
  */
 public class TestCSerialization extends TestCase {
 
+  private static final Logger LOG = Logger.getLogger(TestCSerialization.class.getName());
+
   private boolean skipCTests;
   private File tempDir;
   private File exe;
@@ -543,6 +546,126 @@ public class TestCSerialization extends TestCase {
     //todo: test element refs of attachment elements.
   }
 
+  /**
+   * tests reading a canvas with a handler.
+   */
+  public void testCanvasHandler() throws Exception {
+    if (this.skipCTests) {
+      System.out.println("C tests have been disabled.");
+      return;
+    }
+
+    Canvas canvas = new Canvas();
+    Circle circle1 = new Circle();
+    circle1.setId("circle1");
+    Rectangle rectangle = new Rectangle();
+    rectangle.setId("rectangle1");
+    Triangle triangle = new Triangle();
+    triangle.setId("triangle1");
+    Circle circle2 = new Circle();
+    circle2.setId("circle2");
+    canvas.setShapes(Arrays.asList(circle1, rectangle, triangle, circle2));
+    Line line1 = new Line();
+    line1.setId("line1");
+    Line line2 = new Line();
+    line2.setId("line2");
+    canvas.setLines(Arrays.asList(line1, line2));
+    canvas.setDimensionX(800);
+    canvas.setDimensionY(600);
+
+    JAXBContext context = JAXBContext.newInstance(Canvas.class);
+    File in = new File(this.tempDir, getName() + ".in.xml");
+    context.createMarshaller().marshal(canvas, in);
+
+    //each item is passed to its callback in document order, and freed when the callback returns.
+    File out = new File(this.tempDir, getName() + ".out.xml");
+    List<String> output = processXml("canvas-handler", in, out);
+    List<String> items = outputValues(output, "item: ");
+    assertEquals(6, items.size());
+    List<String> shapes = new ArrayList<String>();
+    List<String> lines = new ArrayList<String>();
+    for (String item : items) {
+      if (item.startsWith("line ")) {
+        lines.add(item);
+      }
+      else {
+        shapes.add(item);
+      }
+    }
+    assertEquals(Arrays.asList("circle circle1", "rectangle rectangle1", "triangle triangle1", "circle circle2"), shapes);
+    assertEquals(Arrays.asList("line line1", "line line2"), lines);
+    assertEquals(Arrays.asList("6"), outputValues(output, "freed: "));
+    assertTrue(outputValues(output, "aborted: ").isEmpty());
+
+    //the handled items aren't accumulated into the canvas.
+    Canvas result = (Canvas) context.createUnmarshaller().unmarshal(out);
+    assertTrue(result.getShapes() == null || result.getShapes().isEmpty());
+    assertTrue(result.getLines() == null || result.getLines().isEmpty());
+    assertEquals(800, result.getDimensionX());
+    assertEquals(600, result.getDimensionY());
+
+    //a callback that returns non-zero aborts the read, and the item it was passed is still freed.
+    File abortedOut = new File(this.tempDir, getName() + ".aborted.out.xml");
+    List<String> abortedOutput = processXml("canvas-handler", in, abortedOut, "3");
+    assertEquals(items.subList(0, 3), outputValues(abortedOutput, "item: "));
+    assertEquals(Arrays.asList("3"), outputValues(abortedOutput, "freed: "));
+    assertEquals(Arrays.asList("3"), outputValues(abortedOutput, "aborted: "));
+  }
+
+  /**
+   * tests the throughput and peak memory of reading and writing a large document, with both heap and arena allocation.
+   */
+  public void testLargeCanvas() throws Exception {
+    if (this.skipCTests) {
+      System.out.println("C tests have been disabled.");
+      return;
+    }
+
+    int count = 20000;
+    Canvas canvas = new Canvas();
+    List<Object> shapes = new ArrayList<Object>(count);
+    List<Line> lines = new ArrayList<Line>(count);
+    for (int i = 0; i < count; i++) {
+      Circle circle = new Circle();
+      circle.setId("circle" + i);
+      circle.setRadius(i);
+      shapes.add(circle);
+      Line line = new Line();
+      line.setId("line" + i);
+      line.setEndX(i);
+      lines.add(line);
+    }
+    canvas.setShapes(shapes);
+    canvas.setLines(lines);
+
+    JAXBContext context = JAXBContext.newInstance(Canvas.class);
+    File in = new File(this.tempDir, getName() + ".in.xml");
+    context.createMarshaller().marshal(canvas, in);
+
+    for (String allocation : Arrays.asList("heap", "arena")) {
+      File out = new File(this.tempDir, getName() + "." + allocation + ".out.xml");
+      long start = System.nanoTime();
+      List<String> output = processXml("canvas", in, out, allocation);
+      long elapsed = System.nanoTime() - start;
+
+      long maxrss = -1;
+      for (String line : output) {
+        if (line.startsWith("maxrss: ")) {
+          maxrss = Long.parseLong(line.substring(8).trim());
+        }
+      }
+      assertTrue("The peak RSS of " + allocation + " allocation should be reported.", maxrss > 0);
+      LOG.info(String.format("%s allocation: %d bytes in %d ms (%.2f MB/s), peak RSS %d.", allocation, in.length(), elapsed / 1000000, (in.length() / (1024.0 * 1024.0)) / (elapsed / 1000000000.0), maxrss));
+
+      Canvas result = (Canvas) context.createUnmarshaller().unmarshal(out);
+      assertEquals(count, result.getShapes().size());
+      assertEquals(count, result.getLines().size());
+      Circle last = (Circle) new ArrayList<Object>(result.getShapes()).get(count - 1);
+      assertEquals("circle" + (count - 1), last.getId());
+      assertEquals(count - 1, last.getRadius());
+    }
+  }
+
   protected <T> T processThroughXml(T object) throws Exception {
     JAXBContext context = JAXBContext.newInstance(object.getClass());
     Marshaller marshaller = context.createMarshaller();
@@ -550,21 +673,39 @@ public class TestCSerialization extends TestCase {
     File in = new File(this.tempDir, getName() + lineNumber + ".in.xml");
     File out = new File(this.tempDir, getName() + lineNumber + ".out.xml");
     marshaller.marshal(object, in);
-//    System.out.printf("%s %s %s %s\n", this.exe.getAbsolutePath(), object.getClass().getSimpleName().toLowerCase(), in.getAbsolutePath(), out.getAbsolutePath());
-    Process process = new ProcessBuilder(this.exe.getAbsolutePath(), object.getClass().getSimpleName().toLowerCase(), in.getAbsolutePath(), out.getAbsolutePath())
+    processXml(object.getClass().getSimpleName().toLowerCase(), in, out);
+
+    Unmarshaller unmarshaller = context.createUnmarshaller();
+    return (T) unmarshaller.unmarshal(out);
+  }
+
+  protected List<String> processXml(String type, File in, File out, String... options) throws Exception {
+    List<String> command = new ArrayList<String>(Arrays.asList(this.exe.getAbsolutePath(), type, in.getAbsolutePath(), out.getAbsolutePath()));
+    command.addAll(Arrays.asList(options));
+    Process process = new ProcessBuilder(command)
       .redirectErrorStream(true)
       .start();
+    List<String> output = new ArrayList<String>();
     BufferedReader procReader = new BufferedReader(new InputStreamReader(process.getInputStream()));
     String line = procReader.readLine();
     while (line != null) {
       System.out.println(line);
+      output.add(line);
       line = procReader.readLine();
     }
     int exitStatus = process.waitFor();
     assertEquals("Process xml failed.", 0, exitStatus);
+    return output;
+  }
 
-    Unmarshaller unmarshaller = context.createUnmarshaller();
-    return (T) unmarshaller.unmarshal(out);
+  protected List<String> outputValues(List<String> output, String prefix) {
+    List<String> values = new ArrayList<String>();
+    for (String line : output) {
+      if (line.startsWith(prefix)) {
+        values.add(line.substring(prefix.length()));
+      }
+    }
+    return values;
   }
 
   protected String packageToModule(String pckg) {
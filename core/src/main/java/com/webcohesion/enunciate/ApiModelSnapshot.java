@@ -0,0 +1,157 @@
+/**
+ * Copyright © 2006-2016 Web Cohesion (info@webcohesion.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webcohesion.enunciate;
+
+import java.io.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+/**
+ * A snapshot of the inputs to the API model: a fingerprint of everything the model is built from (source files,
+ * classpath, sourcepath, configuration, modules, compiler args). The fingerprint keys the build cache, so it only
+ * depends on content: source files and classpath directories are fingerprinted by content, and archives on the
+ * classpath by the names, sizes and CRCs of their entries.
+ *
+ * @author Ryan Heaton
+ */
+public class ApiModelSnapshot {
+
+  private final String fingerprint;
+
+  public ApiModelSnapshot(String fingerprint) {
+    this.fingerprint = fingerprint;
+  }
+
+  /**
+   * The fingerprint of the inputs to the API model.
+   *
+   * @return The fingerprint of the inputs to the API model.
+   */
+  public String getFingerprint() {
+    return fingerprint;
+  }
+
+  /**
+   * Builds a fingerprint (SHA-1) of a set of inputs.
+   */
+  public static class Fingerprint {
+
+    private final MessageDigest digest;
+    private final byte[] buffer = new byte[8 * 1024];
+
+    public Fingerprint() {
+      try {
+        this.digest = MessageDigest.getInstance("SHA-1");
+      }
+      catch (NoSuchAlgorithmException e) {
+        throw new EnunciateException(e);
+      }
+    }
+
+    /**
+     * Add a value to the fingerprint.
+     *
+     * @param value The value (possibly null).
+     * @return this
+     */
+    public Fingerprint add(String value) {
+      if (value == null) {
+        this.digest.update((byte) 0);
+      }
+      else {
+        try {
+          this.digest.update(value.getBytes("utf-8"));
+        }
+        catch (UnsupportedEncodingException e) {
+          throw new EnunciateException(e);
+        }
+        this.digest.update((byte) 1);
+      }
+      return this;
+    }
+
+    /**
+     * Add the contents of a file to the fingerprint. Directories are added recursively (in a stable order), with the
+     * path of each file relative to the directory.
+     *
+     * @param file The file or directory.
+     * @return this
+     */
+    public Fingerprint addContents(File file) throws IOException {
+      if (file.isDirectory()) {
+        addDirectory(file, "");
+      }
+      else if (file.isFile()) {
+        addFile(file);
+      }
+      else {
+        add("<missing>");
+      }
+      return this;
+    }
+
+    private void addDirectory(File dir, String relativePath) throws IOException {
+      File[] files = dir.listFiles();
+      if (files == null) {
+        return;
+      }
+
+      Arrays.sort(files);
+      for (File file : files) {
+        String path = relativePath + file.getName();
+        if (file.isDirectory()) {
+          addDirectory(file, path + '/');
+        }
+        else {
+          add(path);
+          addFile(file);
+        }
+      }
+    }
+
+    private void addFile(File file) throws IOException {
+      InputStream in = new FileInputStream(file);
+      try {
+        int len;
+        while ((len = in.read(this.buffer)) > 0) {
+          this.digest.update(this.buffer, 0, len);
+        }
+      }
+      finally {
+        in.close();
+      }
+      add(String.valueOf(file.length()));
+    }
+
+    @Override
+    public String toString() {
+      byte[] hash;
+      try {
+        hash = ((MessageDigest) this.digest.clone()).digest();
+      }
+      catch (CloneNotSupportedException e) {
+        throw new EnunciateException(e);
+      }
+
+      StringBuilder hex = new StringBuilder(hash.length * 2);
+      for (byte b : hash) {
+        hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+      }
+      return hex.toString();
+    }
+  }
+}
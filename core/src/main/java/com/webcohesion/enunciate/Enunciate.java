@@ -18,11 +18,14 @@ package com.webcohesion.enunciate;
 import com.sun.tools.javac.api.JavacTool;
 import com.webcohesion.enunciate.api.ApiRegistry;
 import com.webcohesion.enunciate.artifacts.Artifact;
+import com.webcohesion.enunciate.artifacts.ArtifactRegistry;
 import com.webcohesion.enunciate.io.InvokeEnunciateModule;
 import com.webcohesion.enunciate.module.ApiRegistryAwareModule;
+import com.webcohesion.enunciate.module.ApiRegistryProviderModule;
 import com.webcohesion.enunciate.module.DependencySpec;
 import com.webcohesion.enunciate.module.DependingModuleAwareModule;
 import com.webcohesion.enunciate.module.EnunciateModule;
+import com.webcohesion.enunciate.util.BuildCache;
 import org.apache.commons.configuration.ConfigurationException;
 import org.jgrapht.DirectedGraph;
 import org.jgrapht.alg.CycleDetector;
@@ -42,7 +45,10 @@ import java.nio.channels.FileChannel;
 import java.util.*;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipFile;
 import java.util.zip.ZipInputStream;
 import java.util.zip.ZipOutputStream;
 
@@ -66,9 +72,12 @@ public class Enunciate implements Runnable {
   private final EnunciateConfiguration configuration = new EnunciateConfiguration();
   private File buildDir;
   private final List<String> compilerArgs = new ArrayList<String>();
-  private final Set<Artifact> artifacts = new TreeSet<Artifact>();
+  private final ArtifactRegistry artifactRegistry = new ArtifactRegistry();
   private final Map<String, File> exports = new HashMap<String, File>();
   private final ApiRegistry apiRegistry = new ApiRegistry();
+  private ApiModelSnapshot apiModelSnapshot;
+  private boolean apiModelScanned = false;
+  private final Map<String, String> archiveFingerprints = new HashMap<String, String>();
 
   public List<EnunciateModule> getModules() {
     return modules;
@@ -266,7 +275,7 @@ public class Enunciate implements Runnable {
    * @return The artifacts exportable by enunciate.
    */
   public Set<Artifact> getArtifacts() {
-    return Collections.unmodifiableSet(artifacts);
+    return this.artifactRegistry.getArtifacts();
   }
 
   /**
@@ -276,15 +285,7 @@ public class Enunciate implements Runnable {
    * @return The artifact, or null if the artifact wasn't found.
    */
   public Artifact findArtifact(String artifactId) {
-    if (artifactId != null) {
-      for (Artifact artifact : artifacts) {
-        if (artifactId.equals(artifact.getId()) || artifact.getAliases().contains(artifactId)) {
-          return artifact;
-        }
-      }
-    }
-
-    return null;
+    return this.artifactRegistry.find(artifactId);
   }
 
   /**
@@ -294,7 +295,16 @@ public class Enunciate implements Runnable {
    * @return Whether the artifact was successfully added.
    */
   public boolean addArtifact(Artifact artifact) {
-    return this.artifacts.add(artifact);
+    return this.artifactRegistry.add(artifact);
+  }
+
+  /**
+   * The registry of the artifacts exportable by enunciate.
+   *
+   * @return The registry of the artifacts exportable by enunciate.
+   */
+  public ArtifactRegistry getArtifactRegistry() {
+    return artifactRegistry;
   }
 
   /**
@@ -306,6 +316,31 @@ public class Enunciate implements Runnable {
     return apiRegistry;
   }
 
+  /**
+   * The snapshot of the inputs to the API model for the current run, or null if the engine hasn't run or the build
+   * cache isn't enabled. The snapshot is taken the first time it's needed.
+   *
+   * @return The snapshot of the inputs to the API model.
+   */
+  public synchronized ApiModelSnapshot getApiModelSnapshot() {
+    if (this.apiModelSnapshot == null && this.apiModelScanned && this.configuration.getBuildCacheDir() != null) {
+      List<File> classpath = this.classpath == null ? new ArrayList<File>() : this.classpath;
+      List<File> sourcepath = this.sourcepath == null ? new ArrayList<File>() : this.sourcepath;
+      this.apiModelSnapshot = takeApiModelSnapshot(classpath, sourcepath);
+    }
+    return apiModelSnapshot;
+  }
+
+  /**
+   * The cache of generated output, or null if no build cache is configured.
+   *
+   * @return The cache of generated output.
+   */
+  public BuildCache getBuildCache() {
+    File buildCacheDir = this.configuration.getBuildCacheDir();
+    return buildCacheDir == null ? null : new BuildCache(buildCacheDir);
+  }
+
   /**
    * Creates a temporary directory.
    *
@@ -495,14 +530,21 @@ public class Enunciate implements Runnable {
    */
   public void unzip(InputStream stream, File toDir) throws IOException {
     ZipInputStream in = new ZipInputStream(stream);
+    String toPath = toDir.getCanonicalPath() + File.separator;
     ZipEntry entry = in.getNextEntry();
     while (entry != null) {
       File file = new File(toDir, entry.getName());
+      if (!file.getCanonicalPath().startsWith(toPath)) {
+        throw new IOException("Zip entry " + entry.getName() + " is outside of the target directory " + toDir + ".");
+      }
       getLogger().debug("Extracting %s to %s.", entry.getName(), file);
       if (entry.isDirectory()) {
         file.mkdirs();
       }
       else {
+        if (file.getParentFile() != null) {
+          file.getParentFile().mkdirs();
+        }
         FileOutputStream out = new FileOutputStream(file);
         byte[] buffer = new byte[1024 * 2]; //2 kb buffer should suffice.
         int len;
@@ -598,6 +640,11 @@ public class Enunciate implements Runnable {
 
       getLogger().debug("Detected API Types: %s", new EnunciateLogger.ListWriter(includedTypes));
 
+      synchronized (this) {
+        this.apiModelSnapshot = null;
+        this.apiModelScanned = true;
+      }
+
       //gather all the java source files.
       List<URL> sourceFiles = getSourceFileURLs();
       URLClassLoader apiClassLoader = new URLClassLoader(scanpath.toArray(new URL[scanpath.size()]));
@@ -731,7 +778,7 @@ public class Enunciate implements Runnable {
       }
 
       HashSet<String> exportedArtifacts = new HashSet<String>();
-      for (Artifact artifact : artifacts) {
+      for (Artifact artifact : this.artifactRegistry.getArtifacts()) {
         String artifactId = artifact.getId();
         Map.Entry<String, File> export = null;
         for (Map.Entry<String, File> entry : this.exports.entrySet()) {
@@ -801,6 +848,132 @@ public class Enunciate implements Runnable {
     return sourceFiles;
   }
 
+  /**
+   * Take a snapshot of the inputs to the API model.
+   *
+   * @param classpath The classpath.
+   * @param sourcepath The sourcepath.
+   * @return The snapshot.
+   */
+  protected ApiModelSnapshot takeApiModelSnapshot(List<File> classpath, List<File> sourcepath) {
+    ApiModelSnapshot.Fingerprint fingerprint = new ApiModelSnapshot.Fingerprint();
+    try {
+      fingerprint.add(Enunciate.class.getPackage() == null ? null : Enunciate.class.getPackage().getImplementationVersion());
+
+      StringWriter config = new StringWriter();
+      this.configuration.getSource().save(config);
+      fingerprint.add(config.toString());
+
+      List<String> moduleNames = new ArrayList<String>();
+      for (EnunciateModule module : this.modules) {
+        moduleNames.add(module.getClass().getName());
+      }
+      Collections.sort(moduleNames);
+      for (String moduleName : moduleNames) {
+        fingerprint.add(moduleName);
+      }
+
+      for (String pattern : getIncludePatterns()) {
+        fingerprint.add("+" + pattern);
+      }
+      for (String pattern : getExcludePatterns()) {
+        fingerprint.add("-" + pattern);
+      }
+      for (String compilerArg : this.compilerArgs) {
+        fingerprint.add(compilerArg);
+      }
+
+      if (this.sourceFiles != null) {
+        for (File sourceFile : new TreeSet<File>(this.sourceFiles)) {
+          fingerprint.add(sourceFile.getName()).addContents(sourceFile);
+        }
+      }
+      for (File entry : classpath) {
+        addPathEntry(fingerprint, entry);
+      }
+      for (File entry : sourcepath) {
+        addPathEntry(fingerprint, entry);
+      }
+    }
+    catch (IOException e) {
+      throw new EnunciateException(e);
+    }
+    catch (ConfigurationException e) {
+      throw new EnunciateException(e);
+    }
+
+    ApiModelSnapshot snapshot = new ApiModelSnapshot(fingerprint.toString());
+    getLogger().debug("API model inputs fingerprint: %s", snapshot.getFingerprint());
+    return snapshot;
+  }
+
+  /**
+   * Add an entry of the classpath or sourcepath to a fingerprint. Directories (e.g. the classes of the project) are
+   * added by content. Archives are added by the names, sizes and CRCs of their entries, which are read from the
+   * archive's central directory, so the fingerprint doesn't depend on file timestamps and matches across machines.
+   * The fingerprint of an archive is reused within a run as long as its size and timestamp don't change.
+   *
+   * @param fingerprint The fingerprint.
+   * @param entry The entry.
+   */
+  protected void addPathEntry(ApiModelSnapshot.Fingerprint fingerprint, File entry) throws IOException {
+    fingerprint.add(entry.getName());
+    if (entry.isFile()) {
+      String key = entry.getAbsolutePath() + '|' + entry.length() + '|' + entry.lastModified();
+      String archiveFingerprint;
+      synchronized (this.archiveFingerprints) {
+        archiveFingerprint = this.archiveFingerprints.get(key);
+      }
+
+      if (archiveFingerprint == null) {
+        archiveFingerprint = fingerprintArchive(entry);
+        synchronized (this.archiveFingerprints) {
+          this.archiveFingerprints.put(key, archiveFingerprint);
+        }
+      }
+      fingerprint.add(archiveFingerprint);
+    }
+    else {
+      fingerprint.addContents(entry);
+    }
+  }
+
+  /**
+   * Fingerprint an archive by the names, sizes and CRCs of its entries. A file that isn't a zip archive is
+   * fingerprinted by content.
+   *
+   * @param file The archive.
+   * @return The fingerprint.
+   */
+  protected String fingerprintArchive(File file) throws IOException {
+    ApiModelSnapshot.Fingerprint fingerprint = new ApiModelSnapshot.Fingerprint();
+    ZipFile zip;
+    try {
+      zip = new ZipFile(file);
+    }
+    catch (ZipException e) {
+      return fingerprint.addContents(file).toString();
+    }
+
+    try {
+      List<ZipEntry> entries = new ArrayList<ZipEntry>(Collections.list(zip.entries()));
+      Collections.sort(entries, new Comparator<ZipEntry>() {
+        @Override
+        public int compare(ZipEntry e1, ZipEntry e2) {
+          return e1.getName().compareTo(e2.getName());
+        }
+      });
+
+      for (ZipEntry zipEntry : entries) {
+        fingerprint.add(zipEntry.getName()).add(String.valueOf(zipEntry.getSize())).add(String.valueOf(zipEntry.getCrc()));
+      }
+    }
+    finally {
+      zip.close();
+    }
+    return fingerprint.toString();
+  }
+
   protected Reflections loadApiReflections(List<URL> classpath) {
     ConfigurationBuilder reflectionSpec = new ConfigurationBuilder()
       .setUrls(classpath)
@@ -900,17 +1073,42 @@ public class Enunciate implements Runnable {
     Scheduler scheduler = this.executorService == null ? Schedulers.immediate() : Schedulers.from(this.executorService);
     Observable<EnunciateContext> source = Observable.just(context).subscribeOn(scheduler);
 
+    //the api model is frozen once all the api registry providers have been invoked.
+    int providerCount = 0;
+    for (EnunciateModule module : modules.values()) {
+      if (module instanceof ApiRegistryProviderModule) {
+        providerCount++;
+      }
+    }
+    AtomicInteger outstandingProviders = new AtomicInteger(providerCount);
+    if (providerCount == 0 && context.getApiRegistry() != null) {
+      context.getApiRegistry().freeze();
+    }
+
     Map<String, Observable<EnunciateContext>> moduleWorkset = new TreeMap<String, Observable<EnunciateContext>>();
+    Map<String, Set<String>> upstreamModules = new TreeMap<String, Set<String>>();
+    this.artifactRegistry.resetModules();
     TopologicalOrderIterator<String, DefaultEdge> graphIt = new TopologicalOrderIterator<String, DefaultEdge>(graph);
     List<Observable<EnunciateContext>> leafModules = new ArrayList<Observable<EnunciateContext>>();
     while (graphIt.hasNext()) {
       String module = graphIt.next();
       Observable<EnunciateContext> moduleWork;
-
       Set<DefaultEdge> dependencies = graph.incomingEdgesOf(module);
+
+      //the modules upstream of this one have already been iterated (in topological order).
+      Set<String> upstream = new TreeSet<String>();
+      for (DefaultEdge dependency : dependencies) {
+        String dep = graph.getEdgeSource(dependency);
+        upstream.add(dep);
+        upstream.addAll(upstreamModules.get(dep));
+      }
+      upstreamModules.put(module, upstream);
+      this.artifactRegistry.expectModule(module, upstream);
+      InvokeEnunciateModule invocation = new InvokeEnunciateModule(modules.get(module), modules.get(module) instanceof ApiRegistryProviderModule ? outstandingProviders : null, this.artifactRegistry);
+
       if (dependencies == null || dependencies.isEmpty()) {
         //no dependencies on this module; plug in directly to the source.
-        moduleWork = source.doOnEach(new InvokeEnunciateModule(modules.get(module))).cache();
+        moduleWork = source.doOnEach(invocation).cache();
       }
       else {
         Observable<EnunciateContext> dependencyWork = source;
@@ -924,7 +1122,7 @@ public class Enunciate implements Runnable {
         }
 
         //zip up all the dependencies.
-        moduleWork = dependencyWork.last().doOnEach(new InvokeEnunciateModule(modules.get(module))).cache();
+        moduleWork = dependencyWork.last().doOnEach(invocation).cache();
       }
 
       moduleWorkset.put(module, moduleWork);
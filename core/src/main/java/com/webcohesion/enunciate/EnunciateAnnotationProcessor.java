@@ -120,6 +120,8 @@ public class EnunciateAnnotationProcessor extends AbstractProcessor {
 
       //fire off (and block on) the engine.
       engine.toList().toBlocking().single();
+      DecoratedProcessingEnvironment env = this.context.getProcessingEnvironment();
+      this.enunciate.getLogger().debug("Type variable resolutions: %s cache hits, %s misses.", env.getTypeVariableCacheHits(), env.getTypeVariableCacheMisses());
 
       this.processed = true;
     }
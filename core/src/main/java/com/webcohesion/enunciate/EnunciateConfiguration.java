@@ -95,6 +95,17 @@ public class EnunciateConfiguration {
     this.defaultVersion = defaultVersion;
   }
 
+  /**
+   * The directory of the content-addressed cache of generated output (e.g. client libraries), or null if generated
+   * output isn't cached. The directory can be shared across builds and machines.
+   *
+   * @return The directory of the build cache.
+   */
+  public File getBuildCacheDir() {
+    String buildCache = this.source.getString("[@buildCache]", null);
+    return buildCache == null || buildCache.trim().isEmpty() ? null : resolveFile(buildCache.trim());
+  }
+
   public String getTitle() {
     return this.source.getString("title", this.defaultTitle);
   }
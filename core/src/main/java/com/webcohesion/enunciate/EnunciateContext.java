@@ -16,6 +16,7 @@
 package com.webcohesion.enunciate;
 
 import com.webcohesion.enunciate.api.ApiRegistry;
+import com.webcohesion.enunciate.facets.FacetRegistry;
 import com.webcohesion.enunciate.javac.decorations.DecoratedProcessingEnvironment;
 import com.webcohesion.enunciate.javac.decorations.DecoratedRoundEnvironment;
 import com.webcohesion.enunciate.util.AntPatternInclude;
@@ -47,6 +48,8 @@ public class EnunciateContext {
   private final FilterBuilder includeFilter;
   private final FilterBuilder excludeFilter;
   private final Map<String, List<FilterBuilder>> facetFilter;
+  private final Map<String, Set<String>> configuredFacets = new ConcurrentHashMap<String, Set<String>>();
+  private final FacetRegistry facetRegistry = new FacetRegistry();
 
   public EnunciateContext(DecoratedProcessingEnvironment processingEnvironment, EnunciateLogger logger, ApiRegistry registry, EnunciateConfiguration configuration, Set<String> includes, Set<String> excludes) {
     this.processingEnvironment = processingEnvironment;
@@ -155,17 +158,26 @@ public class EnunciateContext {
   }
 
   public Set<String> getConfiguredFacets(String fqn) {
-    TreeSet<String> facets = new TreeSet<String>();
-    for (Map.Entry<String, List<FilterBuilder>> facetPatterns : this.facetFilter.entrySet()) {
-      for (FilterBuilder filterBuilder : facetPatterns.getValue()) {
-        if (filterBuilder.apply(fqn)) {
-          facets.add(facetPatterns.getKey());
+    Set<String> facets = this.configuredFacets.get(fqn);
+    if (facets == null) {
+      TreeSet<String> matched = new TreeSet<String>();
+      for (Map.Entry<String, List<FilterBuilder>> facetPatterns : this.facetFilter.entrySet()) {
+        for (FilterBuilder filterBuilder : facetPatterns.getValue()) {
+          if (filterBuilder.apply(fqn)) {
+            matched.add(facetPatterns.getKey());
+          }
         }
       }
+      facets = Collections.unmodifiableSet(matched);
+      this.configuredFacets.put(fqn, facets);
     }
     return facets;
   }
 
+  public FacetRegistry getFacetRegistry() {
+    return facetRegistry;
+  }
+
   private FilterBuilder buildFilter(Set<String> includes) {
     FilterBuilder includeFilter = null;
     if (includes != null && !includes.isEmpty()) {
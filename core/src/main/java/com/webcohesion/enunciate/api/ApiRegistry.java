@@ -33,6 +33,7 @@ public class ApiRegistry {
   private final List<ResourceApi> resourceApis = new ArrayList<ResourceApi>();
   private final Set<Syntax> syntaxes = new TreeSet<Syntax>();
   private InterfaceDescriptionFile swaggerUI;
+  private volatile boolean frozen = false;
 
   public List<ServiceApi> getServiceApis() {
     return serviceApis;
@@ -53,4 +54,22 @@ public class ApiRegistry {
   public void setSwaggerUI(InterfaceDescriptionFile swaggerUI) {
     this.swaggerUI = swaggerUI;
   }
+
+  /**
+   * Whether the API model is frozen. The model is frozen after all the modules that provide elements to the registry
+   * have been invoked. After that point, the views of the model (e.g. namespaces, data types, resource groups) will no
+   * longer change and can be computed once and shared.
+   *
+   * @return Whether the API model is frozen.
+   */
+  public boolean isFrozen() {
+    return frozen;
+  }
+
+  /**
+   * Freeze the API model.
+   */
+  public void freeze() {
+    this.frozen = true;
+  }
 }
@@ -0,0 +1,223 @@
+/**
+ * Copyright © 2006-2016 Web Cohesion (info@webcohesion.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webcohesion.enunciate.artifacts;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The registry of the artifacts exported by the engine. Artifacts can be added and looked up (by id or alias)
+ * concurrently. The sorted view of the artifacts is a snapshot that's computed on demand and reused until another
+ * artifact is added.<br/>
+ * <br/>
+ * The registry also tracks the lifecycle of the modules that produce artifacts: each module is expected (along with
+ * the modules upstream of it) when the engine is composed and completed when it has been invoked, so a module can wait
+ * for the artifacts of a module upstream of it. Once all the expected modules have completed, the registry is frozen
+ * and no more artifacts can be added.
+ *
+ * @author Ryan Heaton
+ */
+public class ArtifactRegistry {
+
+  private final ConcurrentMap<String, Artifact> artifactsById = new ConcurrentHashMap<String, Artifact>();
+  private final ConcurrentMap<String, Artifact> artifactsByAlias = new ConcurrentHashMap<String, Artifact>();
+  private final ConcurrentMap<String, CountDownLatch> modules = new ConcurrentHashMap<String, CountDownLatch>();
+  private final ConcurrentMap<String, Set<String>> upstreamModules = new ConcurrentHashMap<String, Set<String>>();
+  private final AtomicInteger version = new AtomicInteger();
+  private volatile Snapshot snapshot;
+  private volatile boolean frozen = false;
+
+  /**
+   * Adds the specified artifact.
+   *
+   * @param artifact The artifact to add.
+   * @return Whether the artifact was added (false if an artifact with the same id was already added).
+   * @throws IllegalStateException If the registry is frozen.
+   */
+  public boolean add(Artifact artifact) {
+    if (this.frozen) {
+      throw new IllegalStateException(String.format("Unable to add artifact %s: all modules have completed.", artifact.getId()));
+    }
+
+    if (this.artifactsById.putIfAbsent(idOf(artifact), artifact) != null) {
+      return false;
+    }
+
+    indexAliases(artifact);
+    this.version.incrementAndGet();
+    return true;
+  }
+
+  private void indexAliases(Artifact artifact) {
+    Set<String> aliases = artifact.getAliases();
+    if (aliases != null) {
+      for (String alias : aliases) {
+        this.artifactsByAlias.putIfAbsent(alias, artifact);
+      }
+    }
+  }
+
+  private static String idOf(Artifact artifact) {
+    String id = artifact.getId();
+    return id == null ? "" : id;
+  }
+
+  /**
+   * Finds the artifact of the given id (or alias).
+   *
+   * @param artifactId The id (or alias) of the artifact.
+   * @return The artifact, or null if the artifact wasn't found.
+   */
+  public Artifact find(String artifactId) {
+    if (artifactId == null) {
+      return null;
+    }
+
+    Artifact artifact = this.artifactsById.get(artifactId);
+    if (artifact == null) {
+      artifact = this.artifactsByAlias.get(artifactId);
+    }
+
+    if (artifact == null) {
+      //aliases can be added to an artifact after it's been registered.
+      for (Artifact candidate : getArtifacts()) {
+        if (candidate.getAliases().contains(artifactId)) {
+          indexAliases(candidate);
+          return candidate;
+        }
+      }
+    }
+
+    return artifact;
+  }
+
+  /**
+   * The artifacts, sorted.
+   *
+   * @return The artifacts, sorted.
+   */
+  public SortedSet<Artifact> getArtifacts() {
+    int version = this.version.get();
+    Snapshot snapshot = this.snapshot;
+    if (snapshot == null || snapshot.version != version) {
+      snapshot = new Snapshot(version, Collections.unmodifiableSortedSet(new TreeSet<Artifact>(this.artifactsById.values())));
+      this.snapshot = snapshot;
+    }
+    return snapshot.artifacts;
+  }
+
+  /**
+   * The artifacts produced by the specified module.
+   *
+   * @param module The name of the module.
+   * @return The artifacts produced by the module, sorted.
+   */
+  public SortedSet<Artifact> getArtifacts(String module) {
+    SortedSet<Artifact> artifacts = new TreeSet<Artifact>();
+    for (Artifact artifact : getArtifacts()) {
+      if (module.equals(artifact.getModule())) {
+        artifacts.add(artifact);
+      }
+    }
+    return artifacts;
+  }
+
+  /**
+   * Forget the expected modules and unfreeze the registry, e.g. before the engine is composed again. The artifacts
+   * that have already been added are kept.
+   */
+  public void resetModules() {
+    this.modules.clear();
+    this.upstreamModules.clear();
+    this.frozen = false;
+  }
+
+  /**
+   * Expect the specified module to produce artifacts (i.e. to be invoked). A module that was already expected (e.g.
+   * by a previous run of the engine) is expected again.
+   *
+   * @param module The name of the module.
+   * @param upstreamModules The names of the modules that are invoked before the module (directly or indirectly).
+   */
+  public void expectModule(String module, Set<String> upstreamModules) {
+    this.modules.put(module, new CountDownLatch(1));
+    this.upstreamModules.put(module, Collections.unmodifiableSet(new TreeSet<String>(upstreamModules)));
+  }
+
+  /**
+   * Note that the specified module has completed, i.e. that it won't produce any more artifacts.
+   *
+   * @param module The name of the module.
+   */
+  public void moduleCompleted(String module) {
+    CountDownLatch latch = this.modules.get(module);
+    if (latch != null) {
+      latch.countDown();
+    }
+
+    for (CountDownLatch moduleLatch : this.modules.values()) {
+      if (moduleLatch.getCount() > 0) {
+        return;
+      }
+    }
+    this.frozen = true;
+  }
+
+  /**
+   * Wait for the specified module to complete. Returns immediately if the module isn't expected (e.g. it isn't
+   * enabled) or has already completed.
+   *
+   * @param module The name of the module to wait for.
+   * @param dependent The name of the module that's waiting.
+   * @throws IllegalStateException If the module to wait for isn't upstream of the waiting module, since it might not be
+   * invoked until the waiting module has completed.
+   */
+  public void awaitModule(String module, String dependent) throws InterruptedException {
+    CountDownLatch latch = this.modules.get(module);
+    if (latch == null || latch.getCount() == 0) {
+      return;
+    }
+
+    Set<String> upstream = this.upstreamModules.get(dependent);
+    if (upstream == null || !upstream.contains(module)) {
+      throw new IllegalStateException(String.format("Module %s can't wait for module %s: %s isn't upstream of %s.", dependent, module, module, dependent));
+    }
+
+    latch.await();
+  }
+
+  /**
+   * Whether the registry is frozen, i.e. all the expected modules have completed.
+   *
+   * @return Whether the registry is frozen.
+   */
+  public boolean isFrozen() {
+    return frozen;
+  }
+
+  private static class Snapshot {
+    final int version;
+    final SortedSet<Artifact> artifacts;
+
+    Snapshot(int version, SortedSet<Artifact> artifacts) {
+      this.version = version;
+      this.artifacts = artifacts;
+    }
+  }
+}
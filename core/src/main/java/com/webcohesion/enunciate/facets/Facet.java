@@ -16,7 +16,6 @@
 package com.webcohesion.enunciate.facets;
 
 import com.webcohesion.enunciate.EnunciateContext;
-import com.webcohesion.enunciate.metadata.Facets;
 
 import javax.lang.model.element.AnnotationMirror;
 import javax.lang.model.element.Element;
@@ -24,7 +23,6 @@ import javax.lang.model.element.TypeElement;
 import javax.lang.model.type.DeclaredType;
 import java.util.List;
 import java.util.Set;
-import java.util.TreeSet;
 
 /**
  * Used to declare a "facet" for the sake of grouping resources and APIs together for simpler browsing.
@@ -34,6 +32,7 @@ import java.util.TreeSet;
 public class Facet implements Comparable<Facet> {
 
   private final String name;
+  private final int index;
 
   public Facet(com.webcohesion.enunciate.metadata.Facet facet) {
     this(facet.value());
@@ -44,6 +43,7 @@ public class Facet implements Comparable<Facet> {
       throw new NullPointerException();
     }
     this.name = name;
+    this.index = FacetRegistry.indexOf(name);
   }
 
   /**
@@ -54,35 +54,17 @@ public class Facet implements Comparable<Facet> {
    * @return The facets gathered on the declaration.
    */
   public static Set<Facet> gatherFacets(Element declaration, EnunciateContext context) {
-    Set<Facet> bucket = new TreeSet<Facet>();
+    FacetSet bucket = new FacetSet();
     if (declaration != null) {
-      com.webcohesion.enunciate.metadata.Facet facet = declaration.getAnnotation(com.webcohesion.enunciate.metadata.Facet.class);
-      if (facet != null) {
-        bucket.add(new Facet(facet));
-      }
-
-      Facets facets = declaration.getAnnotation(Facets.class);
-      if (facets != null) {
-        for (com.webcohesion.enunciate.metadata.Facet f : facets.value()) {
-          bucket.add(new Facet(f));
-        }
-      }
+      bucket.addAll(FacetRegistry.gatherDeclaredFacets(declaration));
 
+      FacetRegistry registry = context == null ? null : context.getFacetRegistry();
       List<? extends AnnotationMirror> annotationMirrors = declaration.getAnnotationMirrors();
       for (AnnotationMirror annotationMirror : annotationMirrors) {
         DeclaredType annotationType = annotationMirror.getAnnotationType();
         if (annotationType != null) {
           Element annotationDeclaration = annotationType.asElement();
-          facet = annotationDeclaration.getAnnotation(com.webcohesion.enunciate.metadata.Facet.class);
-          if (facet != null) {
-            bucket.add(new Facet(facet));
-          }
-          facets = annotationDeclaration.getAnnotation(Facets.class);
-          if (facets != null) {
-            for (com.webcohesion.enunciate.metadata.Facet f : facets.value()) {
-              bucket.add(new Facet(f));
-            }
-          }
+          bucket.addAll(registry == null ? FacetRegistry.gatherDeclaredFacets(annotationDeclaration) : registry.getAnnotationFacets(annotationDeclaration));
         }
       }
 
@@ -96,6 +78,16 @@ public class Facet implements Comparable<Facet> {
     return bucket;
   }
 
+  /**
+   * The bit index of this facet.
+   *
+   * @return The bit index of this facet.
+   * @see FacetRegistry#indexOf(String)
+   */
+  public int getIndex() {
+    return index;
+  }
+
   public String getName() {
     return name;
   }
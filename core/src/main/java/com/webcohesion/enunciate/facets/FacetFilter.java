@@ -24,10 +24,24 @@ public class FacetFilter {
 
   private final Set<String> includes;
   private final Set<String> excludes;
+  private final BitSet includeIndexes;
+  private final BitSet excludeIndexes;
 
   public FacetFilter(Set<String> includes, Set<String> excludes) {
     this.includes = includes;
     this.excludes = excludes;
+    this.includeIndexes = indexesOf(includes);
+    this.excludeIndexes = indexesOf(excludes);
+  }
+
+  private static BitSet indexesOf(Set<String> names) {
+    BitSet indexes = new BitSet();
+    if (names != null) {
+      for (String name : names) {
+        indexes.set(FacetRegistry.indexOf(name));
+      }
+    }
+    return indexes;
   }
 
   public boolean accept(HasFacets item) {
@@ -39,6 +53,17 @@ public class FacetFilter {
       return true;
     }
 
+    Set<Facet> itemFacets = item.getFacets();
+    if (itemFacets instanceof FacetSet) {
+      FacetSet facetSet = (FacetSet) itemFacets;
+      if (!this.includeIndexes.isEmpty() && !facetSet.intersects(this.includeIndexes)) {
+        return false;
+      }
+
+      //then remove the items that are explicitly excluded.
+      return !facetSet.intersects(this.excludeIndexes);
+    }
+
     boolean accept = true;
     if (includes != null && !includes.isEmpty()) {
       boolean included = false;
@@ -0,0 +1,109 @@
+/**
+ * Copyright © 2006-2016 Web Cohesion (info@webcohesion.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webcohesion.enunciate.facets;
+
+import com.webcohesion.enunciate.metadata.Facets;
+
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Registry of facets. Each facet name is assigned a bit index, used by {@link FacetSet} and {@link FacetFilter}.
+ * The indexes are shared by the whole process because facet sets and filters are created without access to any
+ * context (and there are only ever a handful of facet names). The facets declared by each annotation type are
+ * memoized per registry, i.e. per run.
+ *
+ * @author Ryan Heaton
+ */
+public class FacetRegistry {
+
+  private static final ConcurrentMap<String, Integer> INDEXES = new ConcurrentHashMap<String, Integer>();
+  private static final AtomicInteger NEXT_INDEX = new AtomicInteger();
+
+  private final ConcurrentMap<String, Set<Facet>> annotationFacets = new ConcurrentHashMap<String, Set<Facet>>();
+
+  /**
+   * The bit index of the facet with the specified name.
+   *
+   * @param name The facet name.
+   * @return The bit index.
+   */
+  public static int indexOf(String name) {
+    Integer index = INDEXES.get(name);
+    if (index == null) {
+      Integer assigned = NEXT_INDEX.getAndIncrement();
+      index = INDEXES.putIfAbsent(name, assigned);
+      if (index == null) {
+        index = assigned;
+      }
+    }
+    return index;
+  }
+
+  /**
+   * The facets declared (via meta-annotations) by the specified annotation type.
+   *
+   * @param annotationDeclaration The annotation type.
+   * @return The facets declared by the annotation type.
+   */
+  public Set<Facet> getAnnotationFacets(Element annotationDeclaration) {
+    if (!(annotationDeclaration instanceof TypeElement)) {
+      return gatherDeclaredFacets(annotationDeclaration);
+    }
+
+    String fqn = ((TypeElement) annotationDeclaration).getQualifiedName().toString();
+    Set<Facet> facets = this.annotationFacets.get(fqn);
+    if (facets == null) {
+      facets = gatherDeclaredFacets(annotationDeclaration);
+      this.annotationFacets.put(fqn, facets);
+    }
+    return facets;
+  }
+
+  /**
+   * Gather the facets declared directly on an element via {@link com.webcohesion.enunciate.metadata.Facet} and
+   * {@link Facets}.
+   *
+   * @param declaration The element.
+   * @return The facets.
+   */
+  static Set<Facet> gatherDeclaredFacets(Element declaration) {
+    FacetSet bucket = null;
+    com.webcohesion.enunciate.metadata.Facet facet = declaration.getAnnotation(com.webcohesion.enunciate.metadata.Facet.class);
+    if (facet != null) {
+      bucket = new FacetSet();
+      bucket.add(new Facet(facet));
+    }
+
+    Facets facets = declaration.getAnnotation(Facets.class);
+    if (facets != null) {
+      if (bucket == null) {
+        bucket = new FacetSet();
+      }
+
+      for (com.webcohesion.enunciate.metadata.Facet f : facets.value()) {
+        bucket.add(new Facet(f));
+      }
+    }
+
+    return bucket == null ? Collections.<Facet>emptySet() : Collections.unmodifiableSet(bucket);
+  }
+}
@@ -0,0 +1,136 @@
+/**
+ * Copyright © 2006-2016 Web Cohesion (info@webcohesion.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webcohesion.enunciate.facets;
+
+import java.util.*;
+
+/**
+ * A sorted set of facets that also keeps a bitset of the facets' indexes, so that a {@link FacetFilter} can check
+ * it against its includes and excludes without iterating.
+ *
+ * @author Ryan Heaton
+ */
+public class FacetSet extends AbstractSet<Facet> implements SortedSet<Facet> {
+
+  private final TreeSet<Facet> facets = new TreeSet<Facet>();
+  private final BitSet bits = new BitSet();
+
+  public FacetSet() {
+  }
+
+  public FacetSet(Collection<Facet> facets) {
+    addAll(facets);
+  }
+
+  @Override
+  public boolean add(Facet facet) {
+    if (this.facets.add(facet)) {
+      this.bits.set(facet.getIndex());
+      return true;
+    }
+    return false;
+  }
+
+  @Override
+  public boolean remove(Object o) {
+    if (this.facets.remove(o)) {
+      this.bits.clear(((Facet) o).getIndex());
+      return true;
+    }
+    return false;
+  }
+
+  @Override
+  public boolean contains(Object o) {
+    return o instanceof Facet && this.bits.get(((Facet) o).getIndex());
+  }
+
+  @Override
+  public void clear() {
+    this.facets.clear();
+    this.bits.clear();
+  }
+
+  @Override
+  public Iterator<Facet> iterator() {
+    final Iterator<Facet> it = this.facets.iterator();
+    return new Iterator<Facet>() {
+      private Facet current;
+
+      @Override
+      public boolean hasNext() {
+        return it.hasNext();
+      }
+
+      @Override
+      public Facet next() {
+        this.current = it.next();
+        return this.current;
+      }
+
+      @Override
+      public void remove() {
+        it.remove();
+        bits.clear(this.current.getIndex());
+      }
+    };
+  }
+
+  @Override
+  public int size() {
+    return this.facets.size();
+  }
+
+  /**
+   * Whether this set contains any of the facets with the specified indexes.
+   *
+   * @param indexes The facet indexes.
+   * @return Whether this set contains any of the facets.
+   */
+  public boolean intersects(BitSet indexes) {
+    return this.bits.intersects(indexes);
+  }
+
+  @Override
+  public Comparator<? super Facet> comparator() {
+    return null;
+  }
+
+  @Override
+  public SortedSet<Facet> subSet(Facet fromElement, Facet toElement) {
+    return Collections.unmodifiableSortedSet(this.facets.subSet(fromElement, toElement));
+  }
+
+  @Override
+  public SortedSet<Facet> headSet(Facet toElement) {
+    return Collections.unmodifiableSortedSet(this.facets.headSet(toElement));
+  }
+
+  @Override
+  public SortedSet<Facet> tailSet(Facet fromElement) {
+    return Collections.unmodifiableSortedSet(this.facets.tailSet(fromElement));
+  }
+
+  @Override
+  public Facet first() {
+    return this.facets.first();
+  }
+
+  @Override
+  public Facet last() {
+    return this.facets.last();
+  }
+}
@@ -16,18 +16,40 @@
 package com.webcohesion.enunciate.io;
 
 import com.webcohesion.enunciate.EnunciateContext;
+import com.webcohesion.enunciate.artifacts.ArtifactRegistry;
+import com.webcohesion.enunciate.module.BasicGeneratingModule;
 import com.webcohesion.enunciate.module.EnunciateModule;
 import rx.Observer;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * @author Ryan Heaton
  */
 public class InvokeEnunciateModule implements Observer<EnunciateContext> {
 
   private final EnunciateModule module;
+  private final AtomicInteger outstandingProviders;
+  private final ArtifactRegistry artifactRegistry;
 
   public InvokeEnunciateModule(EnunciateModule module) {
+    this(module, null);
+  }
+
+  public InvokeEnunciateModule(EnunciateModule module, AtomicInteger outstandingProviders) {
+    this(module, outstandingProviders, null);
+  }
+
+  /**
+   * @param module The module to invoke.
+   * @param outstandingProviders The count of API registry providers that haven't been invoked yet. When the count reaches
+   *                             zero, the API model is frozen.
+   * @param artifactRegistry The artifact registry to notify when the module has completed.
+   */
+  public InvokeEnunciateModule(EnunciateModule module, AtomicInteger outstandingProviders, ArtifactRegistry artifactRegistry) {
     this.module = module;
+    this.outstandingProviders = outstandingProviders;
+    this.artifactRegistry = artifactRegistry;
   }
 
 
@@ -43,6 +65,22 @@ public class InvokeEnunciateModule implements Observer<EnunciateContext> {
 
   @Override
   public void onNext(EnunciateContext enunciateContext) {
-    this.module.call(enunciateContext);
+    try {
+      this.module.call(enunciateContext);
+      if (this.module instanceof BasicGeneratingModule) {
+        ((BasicGeneratingModule) this.module).writeUpToDateStamps();
+      }
+    }
+    finally {
+      if (this.artifactRegistry != null) {
+        //notify even if the module failed so nothing waits on it forever.
+        this.artifactRegistry.moduleCompleted(this.module.getName());
+      }
+    }
+
+    if (this.outstandingProviders != null && this.outstandingProviders.decrementAndGet() == 0 && enunciateContext.getApiRegistry() != null) {
+      enunciateContext.getLogger().debug("All API registry providers have been invoked. Freezing the API model.");
+      enunciateContext.getApiRegistry().freeze();
+    }
   }
 }
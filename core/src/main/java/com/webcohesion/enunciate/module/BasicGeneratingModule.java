@@ -15,15 +15,24 @@
  */
 package com.webcohesion.enunciate.module;
 
+import com.webcohesion.enunciate.ApiModelSnapshot;
 import com.webcohesion.enunciate.javac.decorations.DecoratedProcessingEnvironment;
 import com.webcohesion.enunciate.javac.decorations.SourcePosition;
+import com.webcohesion.enunciate.util.BuildCache;
 
 import javax.lang.model.element.Element;
 import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
 import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.security.CodeSource;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -31,8 +40,12 @@ import java.util.Set;
  */
 public abstract class BasicGeneratingModule extends BasicEnunicateModule {
 
+  private volatile String moduleFingerprint;
+  private final Map<File, Long> staleFiles = new LinkedHashMap<File, Long>();
+
   /**
-   * Whether all files in the specified directory are newer than all the source files.
+   * Whether the specified directory was generated after the source files were last modified (or, if this module has
+   * no record of generating it, whether all files in the directory are newer than all the source files).
    *
    * @param destDir The directory.
    * @return Whether the destination directory is up-to-date.
@@ -54,9 +67,96 @@ public abstract class BasicGeneratingModule extends BasicEnunicateModule {
     return isUpToDate(newestSourceTimestamp, destDir);
   }
 
+  /**
+   * Restore the specified directory from the build cache, if a build cache is configured and it has an entry for the
+   * inputs to this module. The existing contents of the directory are replaced, so modules call this only when the
+   * directory needs to be (re)generated.
+   *
+   * @param destDir The directory.
+   * @return Whether the directory was restored.
+   */
+  protected boolean restoreFromBuildCache(File destDir) {
+    BuildCache buildCache = this.enunciate.getBuildCache();
+    String key = buildCache == null ? null : getBuildCacheKey(destDir);
+    if (key == null) {
+      return false;
+    }
+
+    if (buildCache.restore(key, destDir)) {
+      info("Restored %s from the build cache.", destDir);
+      return true;
+    }
+
+    debug("No build cache entry %s for %s.", key, destDir);
+    return false;
+  }
+
+  /**
+   * Store the specified (generated) directory in the build cache, if a build cache is configured.
+   *
+   * @param destDir The directory.
+   */
+  protected void storeInBuildCache(File destDir) {
+    BuildCache buildCache = this.enunciate.getBuildCache();
+    String key = buildCache == null ? null : getBuildCacheKey(destDir);
+    if (key == null) {
+      return;
+    }
+
+    try {
+      if (buildCache.store(key, destDir)) {
+        debug("%s was stored as build cache entry %s.", destDir, key);
+      }
+    }
+    catch (IOException e) {
+      warn("Unable to store %s in the build cache: %s", destDir, e.getMessage());
+    }
+  }
+
+  /**
+   * The key of the specified directory in the build cache: a fingerprint of the inputs to the API model (which include
+   * the configuration of this module and the Enunciate version), the generated code license, the code of this module
+   * (including its templates), and the name of the directory.
+   *
+   * @param destDir The directory.
+   * @return The key, or null if the inputs can't be determined.
+   */
+  protected String getBuildCacheKey(File destDir) {
+    ApiModelSnapshot snapshot = this.enunciate.getApiModelSnapshot();
+    String moduleFingerprint = getModuleFingerprint();
+    if (snapshot == null || moduleFingerprint == null) {
+      return null;
+    }
+
+    return BuildCache.key(snapshot.getFingerprint(), this.enunciate.getConfiguration().readGeneratedCodeLicenseFile(), getName(), moduleFingerprint, destDir.getName());
+  }
+
+  private String getModuleFingerprint() {
+    String moduleFingerprint = this.moduleFingerprint;
+    if (moduleFingerprint == null) {
+      CodeSource codeSource = getClass().getProtectionDomain().getCodeSource();
+      URL location = codeSource == null ? null : codeSource.getLocation();
+      if (location == null || !"file".equalsIgnoreCase(location.getProtocol())) {
+        return null;
+      }
+
+      try {
+        moduleFingerprint = new ApiModelSnapshot.Fingerprint().addContents(new File(location.toURI())).toString();
+      }
+      catch (URISyntaxException e) {
+        return null;
+      }
+      catch (IOException e) {
+        return null;
+      }
+      this.moduleFingerprint = moduleFingerprint;
+    }
+    return moduleFingerprint;
+  }
+
   public long findSourceTimestamp(DecoratedProcessingEnvironment env, Element apiElement) {
     SourcePosition sp = env.findSourcePosition(apiElement);
-    URI uri = sp == null ? null : sp.getPath() == null ? null : sp.getPath().getCompilationUnit() == null ? null : sp.getPath().getCompilationUnit().getSourceFile() == null ? null : sp.getPath().getCompilationUnit().getSourceFile().toUri();
+    URI uri = sp == null ? null : sp.getSourceFile() == null ? null : sp.getSourceFile().toUri();
     if (uri != null && "file".equalsIgnoreCase(uri.getScheme())) {
       //it's a file uri.
       return new File(uri.getPath()).lastModified();
@@ -66,6 +166,17 @@ public abstract class BasicGeneratingModule extends BasicEnunicateModule {
   }
 
   protected boolean isUpToDate(long newestSourceTimestamp, File destFile) {
+    long checked = System.currentTimeMillis();
+    boolean upToDate = checkUpToDate(newestSourceTimestamp, destFile);
+    if (!upToDate && destFile != null) {
+      synchronized (this.staleFiles) {
+        this.staleFiles.put(destFile, checked);
+      }
+    }
+    return upToDate;
+  }
+
+  private boolean checkUpToDate(long newestSourceTimestamp, File destFile) {
     List<File> destFiles;
     if ((destFile == null) || (!destFile.exists())) {
       debug("%s is NOT up-to-date because it doesn't exist.", destFile);
@@ -83,18 +194,74 @@ public abstract class BasicGeneratingModule extends BasicEnunicateModule {
       debug("%s is NOT up-to-date because it's an empty directory.", destFile);
       return false;
     }
-    else {
-      File oldestDest = getOldest(destFiles);
 
-      if (newestSourceTimestamp < oldestDest.lastModified()) {
-        debug("%s is up-to-date because its oldest file, %s, is younger than the youngest source file.", destFile, oldestDest);
+    //unchanged files keep their timestamps when they're regenerated, so the time of the last generation is recorded in a stamp file.
+    File stamp = getUpToDateStamp(destFile);
+    if (stamp != null && stamp.exists()) {
+      if (newestSourceTimestamp < stamp.lastModified()) {
+        debug("%s is up-to-date because it was generated after the youngest source file was modified.", destFile);
         return true;
       }
       else {
-        debug("%s is NOT up-to-date because its oldest file, %s, is older than the youngest source file.", destFile, oldestDest);
+        debug("%s is NOT up-to-date because it was generated before the youngest source file was modified.", destFile);
         return false;
       }
     }
+
+    File oldestDest = getOldest(destFiles);
+    if (newestSourceTimestamp < oldestDest.lastModified()) {
+      debug("%s is up-to-date because its oldest file, %s, is younger than the youngest source file.", destFile, oldestDest);
+      return true;
+    }
+    else {
+      debug("%s is NOT up-to-date because its oldest file, %s, is older than the youngest source file.", destFile, oldestDest);
+      return false;
+    }
+  }
+
+  /**
+   * The stamp file recording when the specified file or directory was last generated by this module.
+   *
+   * @param destFile The generated file or directory.
+   * @return The stamp file, or null if there's no build directory to keep it in.
+   */
+  protected File getUpToDateStamp(File destFile) {
+    File buildDir = this.enunciate.getBuildDir();
+    if (buildDir == null) {
+      return null;
+    }
+
+    String path = destFile.getAbsolutePath();
+    return new File(new File(new File(buildDir, getName()), ".stamps"), destFile.getName() + "-" + Integer.toHexString(path.hashCode()));
+  }
+
+  /**
+   * Record that the files and directories this module found out of date have been (re)generated. Invoked by the engine
+   * once this module has completed successfully.
+   */
+  public void writeUpToDateStamps() {
+    Map<File, Long> generated;
+    synchronized (this.staleFiles) {
+      generated = new LinkedHashMap<File, Long>(this.staleFiles);
+      this.staleFiles.clear();
+    }
+
+    for (Map.Entry<File, Long> entry : generated.entrySet()) {
+      File stamp = getUpToDateStamp(entry.getKey());
+      if (stamp == null || !entry.getKey().exists()) {
+        continue;
+      }
+
+      try {
+        stamp.getParentFile().mkdirs();
+        new FileOutputStream(stamp).close();
+        //the stamp is dated to when the file was found out of date, so a source modified during generation is still seen as newer.
+        stamp.setLastModified(entry.getValue());
+      }
+      catch (IOException e) {
+        debug("Unable to write up-to-date stamp %s: %s", stamp, e.getMessage());
+      }
+    }
   }
 
   /**
@@ -15,16 +15,14 @@
  */
 package com.webcohesion.enunciate.util;
 
-import java.util.Comparator;
-
 /**
  * @author Ryan Heaton
  */
-public class BreadthFirstResourcePathComparator implements Comparator<String> {
+public class BreadthFirstResourcePathComparator extends ResourcePathComparator {
 
   public int compare(String resource1Path, String resource2Path) {
-    String[] path1Segments = resource1Path.split("/");
-    String[] path2Segments = resource2Path.split("/");
+    String[] path1Segments = segments(resource1Path);
+    String[] path2Segments = segments(resource2Path);
     int comparison = path1Segments.length - path2Segments.length;
     if (comparison == 0) {
       int index = 0;
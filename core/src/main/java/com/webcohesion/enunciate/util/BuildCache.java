@@ -0,0 +1,225 @@
+/**
+ * Copyright © 2006-2016 Web Cohesion (info@webcohesion.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webcohesion.enunciate.util;
+
+import com.webcohesion.enunciate.ApiModelSnapshot;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * A content-addressed cache of generated output directories. Each entry is a zip of a directory, stored under the key
+ * of the inputs the directory was generated from, so the cache directory can be shared across builds, modules and
+ * machines (e.g. on a shared filesystem). Since the entries may come from another machine, an entry that can't be
+ * read, or that would extract outside of the directory being restored, is treated as a miss.
+ *
+ * @author Ryan Heaton
+ */
+public class BuildCache {
+
+  private final File dir;
+
+  public BuildCache(File dir) {
+    this.dir = dir;
+  }
+
+  /**
+   * The cache directory.
+   *
+   * @return The cache directory.
+   */
+  public File getDir() {
+    return dir;
+  }
+
+  /**
+   * Compute the key of a set of inputs.
+   *
+   * @param inputs The inputs (each possibly null), in a stable order.
+   * @return The key.
+   */
+  public static String key(String... inputs) {
+    ApiModelSnapshot.Fingerprint fingerprint = new ApiModelSnapshot.Fingerprint();
+    for (String input : inputs) {
+      fingerprint.add(input);
+    }
+    return fingerprint.toString();
+  }
+
+  /**
+   * The file of the entry for the specified key.
+   *
+   * @param key The key.
+   * @return The file of the entry.
+   */
+  protected File getEntryFile(String key) {
+    return new File(new File(this.dir, key.substring(0, Math.min(2, key.length()))), key + ".zip");
+  }
+
+  /**
+   * Restore a directory from the cache. The existing contents of the directory are replaced. If the entry for the key
+   * is corrupt, it's removed from the cache, the directory is left empty, and the restore is a miss.
+   *
+   * @param key     The key.
+   * @param destDir The directory to restore.
+   * @return Whether the directory was restored.
+   */
+  public boolean restore(String key, File destDir) {
+    File entry = getEntryFile(key);
+    if (!entry.isFile()) {
+      return false;
+    }
+
+    deleteContents(destDir);
+    destDir.mkdirs();
+    try {
+      if (extract(entry, destDir) > 0) {
+        return true;
+      }
+    }
+    catch (IOException e) {
+      //fall through to treat the entry as corrupt...
+    }
+
+    deleteContents(destDir);
+    entry.delete();
+    return false;
+  }
+
+  /**
+   * Store a directory in the cache. Empty directories aren't stored, and an existing entry for the key is kept.
+   *
+   * @param key    The key.
+   * @param srcDir The directory to store.
+   * @return Whether the directory was stored.
+   */
+  public boolean store(String key, File srcDir) throws IOException {
+    File entry = getEntryFile(key);
+    List<String> paths = new ArrayList<String>();
+    listFiles(srcDir, "", paths);
+    if (entry.isFile() || paths.isEmpty()) {
+      return false;
+    }
+
+    //zip to a temporary file and rename it, so concurrent builds never see a partial entry.
+    entry.getParentFile().mkdirs();
+    File tmp = new File(entry.getParentFile(), entry.getName() + "." + System.nanoTime() + ".tmp");
+    try {
+      ZipOutputStream out = new ZipOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)));
+      try {
+        byte[] buffer = new byte[8 * 1024];
+        for (String path : paths) {
+          out.putNextEntry(new ZipEntry(path));
+          InputStream in = new FileInputStream(new File(srcDir, path));
+          try {
+            int len;
+            while ((len = in.read(buffer)) > 0) {
+              out.write(buffer, 0, len);
+            }
+          }
+          finally {
+            in.close();
+          }
+          out.closeEntry();
+        }
+      }
+      finally {
+        out.close();
+      }
+      return tmp.renameTo(entry);
+    }
+    finally {
+      if (tmp.exists()) {
+        tmp.delete();
+      }
+    }
+  }
+
+  private static int extract(File entry, File destDir) throws IOException {
+    String destPath = destDir.getCanonicalPath() + File.separator;
+    int count = 0;
+    ZipInputStream in = new ZipInputStream(new BufferedInputStream(new FileInputStream(entry)));
+    try {
+      byte[] buffer = new byte[8 * 1024];
+      ZipEntry zipEntry = in.getNextEntry();
+      while (zipEntry != null) {
+        File file = new File(destDir, zipEntry.getName());
+        if (!file.getCanonicalPath().startsWith(destPath)) {
+          throw new IOException("Build cache entry " + entry + " has an entry outside of the target directory: " + zipEntry.getName());
+        }
+
+        if (zipEntry.isDirectory()) {
+          file.mkdirs();
+        }
+        else {
+          file.getParentFile().mkdirs();
+          OutputStream out = new FileOutputStream(file);
+          try {
+            int len;
+            while ((len = in.read(buffer)) > 0) {
+              out.write(buffer, 0, len);
+            }
+          }
+          finally {
+            out.close();
+          }
+          count++;
+        }
+
+        in.closeEntry();
+        zipEntry = in.getNextEntry();
+      }
+    }
+    finally {
+      in.close();
+    }
+    return count;
+  }
+
+  private static void listFiles(File dir, String relativePath, List<String> paths) {
+    File[] files = dir.listFiles();
+    if (files != null) {
+      List<File> sorted = new ArrayList<File>();
+      Collections.addAll(sorted, files);
+      Collections.sort(sorted);
+      for (File file : sorted) {
+        if (file.isDirectory()) {
+          listFiles(file, relativePath + file.getName() + '/', paths);
+        }
+        else {
+          paths.add(relativePath + file.getName());
+        }
+      }
+    }
+  }
+
+  private static void deleteContents(File dir) {
+    File[] files = dir.listFiles();
+    if (files != null) {
+      for (File file : files) {
+        if (file.isDirectory()) {
+          deleteContents(file);
+        }
+        file.delete();
+      }
+    }
+  }
+}
@@ -15,16 +15,14 @@
  */
 package com.webcohesion.enunciate.util;
 
-import java.util.Comparator;
-
 /**
  * @author Ryan Heaton
  */
-public class DepthFirstResourcePathComparator implements Comparator<String> {
+public class DepthFirstResourcePathComparator extends ResourcePathComparator {
 
   public int compare(String resource1Path, String resource2Path) {
-    String[] path1Segments = resource1Path.split("/");
-    String[] path2Segments = resource2Path.split("/");
+    String[] path1Segments = segments(resource1Path);
+    String[] path2Segments = segments(resource2Path);
     int index = 0;
     int comparison = 0;
     while ((index < path1Segments.length || index < path2Segments.length) && comparison == 0) {
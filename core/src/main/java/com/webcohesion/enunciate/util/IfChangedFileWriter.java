@@ -0,0 +1,182 @@
+/**
+ * Copyright © 2006-2016 Web Cohesion (info@webcohesion.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webcohesion.enunciate.util;
+
+import java.io.*;
+import java.nio.charset.Charset;
+
+/**
+ * A writer that buffers its content in memory and, when closed, writes it to a file only if the file doesn't already
+ * have exactly the same bytes. Leaving unchanged files alone preserves their timestamps, so downstream up-to-date
+ * checks (compilation, packaging, external build caches) aren't invalidated by a regeneration that produced the same
+ * output.
+ *
+ * @author Ryan Heaton
+ */
+public class IfChangedFileWriter extends Writer {
+
+  private static final int COMPARE_BUFFER_SIZE = 8192;
+
+  private final File file;
+  private final Charset charset;
+  private final StringBuilder buffer;
+  private boolean closed = false;
+  private boolean written = false;
+
+  public IfChangedFileWriter(File file, String charset) {
+    this(file, charset, new StringBuilder());
+  }
+
+  /**
+   * @param file The file to write.
+   * @param charset The charset.
+   * @param buffer The buffer to render into. It's cleared first, so callers can reuse a buffer across files.
+   */
+  public IfChangedFileWriter(File file, String charset, StringBuilder buffer) {
+    this.file = file;
+    this.charset = Charset.forName(charset);
+    this.buffer = buffer;
+    this.buffer.setLength(0);
+  }
+
+  @Override
+  public void write(char[] cbuf, int off, int len) throws IOException {
+    ensureOpen();
+    this.buffer.append(cbuf, off, len);
+  }
+
+  @Override
+  public void write(int c) throws IOException {
+    ensureOpen();
+    this.buffer.append((char) c);
+  }
+
+  @Override
+  public void write(String str, int off, int len) throws IOException {
+    ensureOpen();
+    this.buffer.append(str, off, off + len);
+  }
+
+  @Override
+  public void flush() throws IOException {
+    //no-op; nothing is written until the writer is closed.
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (this.closed) {
+      return;
+    }
+
+    this.closed = true;
+    this.written = write(this.file, this.buffer.toString(), this.charset);
+    this.buffer.setLength(0);
+  }
+
+  /**
+   * Closes this writer without writing the file, e.g. because the content failed to render.
+   */
+  public void discard() {
+    this.closed = true;
+    this.buffer.setLength(0);
+  }
+
+  /**
+   * Whether the file was (re)written when this writer was closed.
+   *
+   * @return Whether the file was (re)written when this writer was closed.
+   */
+  public boolean isWritten() {
+    return written;
+  }
+
+  private void ensureOpen() throws IOException {
+    if (this.closed) {
+      throw new IOException("Writer for " + this.file + " has already been closed.");
+    }
+  }
+
+  /**
+   * Write the specified content to a file, unless the file already has exactly the same bytes.
+   *
+   * @param file The file.
+   * @param content The content.
+   * @param charset The charset.
+   * @return Whether the file was written.
+   */
+  public static boolean write(File file, String content, Charset charset) throws IOException {
+    return write(file, content.getBytes(charset));
+  }
+
+  /**
+   * Write the specified bytes to a file, unless the file already has exactly the same bytes.
+   *
+   * @param file The file.
+   * @param bytes The bytes.
+   * @return Whether the file was written.
+   */
+  public static boolean write(File file, byte[] bytes) throws IOException {
+    if (hasContent(file, bytes)) {
+      return false;
+    }
+
+    FileOutputStream out = new FileOutputStream(file);
+    try {
+      out.write(bytes);
+    }
+    finally {
+      out.close();
+    }
+    return true;
+  }
+
+  /**
+   * Whether the specified file has exactly the specified content. The lengths are compared first, so a changed file
+   * is usually detected without reading it.
+   *
+   * @param file The file.
+   * @param bytes The content.
+   * @return Whether the file has exactly the specified content.
+   */
+  public static boolean hasContent(File file, byte[] bytes) throws IOException {
+    if (!file.isFile() || file.length() != bytes.length) {
+      return false;
+    }
+
+    InputStream in = new FileInputStream(file);
+    try {
+      byte[] chunk = new byte[Math.min(COMPARE_BUFFER_SIZE, Math.max(bytes.length, 1))];
+      int offset = 0;
+      int len;
+      while ((len = in.read(chunk)) > 0) {
+        if (offset + len > bytes.length) {
+          return false;
+        }
+
+        for (int i = 0; i < len; i++) {
+          if (chunk[i] != bytes[offset + i]) {
+            return false;
+          }
+        }
+        offset += len;
+      }
+      return offset == bytes.length;
+    }
+    finally {
+      in.close();
+    }
+  }
+}
@@ -0,0 +1,634 @@
+/**
+ * Copyright © 2006-2016 Web Cohesion (info@webcohesion.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webcohesion.enunciate.util;
+
+import com.sun.tools.javac.api.JavacTool;
+import com.webcohesion.enunciate.EnunciateLogger;
+
+import javax.tools.*;
+import java.io.*;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * Compiles a directory of generated Java sources, recompiling only the sources that changed since the last compile
+ * (and the sources that depend on them).<br/>
+ * <br/>
+ * A state file records, for each source, a hash of its content, the class files it produced, the other sources
+ * it references (read from the constant pools of its class files) and a hash of the compile-time constants it
+ * declares. Since javac inlines compile-time constants, a reference to a constant doesn't show up in the constant pool
+ * of the referring class, so if the constants of a recompiled or removed source change, everything is recompiled. If
+ * the compiler options or classpath change, or if the incremental compile fails, everything is recompiled, too.<br/>
+ * <br/>
+ * The compiler's file manager is kept open between compiles, so the compiler should be closed when it's no longer
+ * needed.
+ *
+ * @author Ryan Heaton
+ */
+public class IncrementalJavaCompiler implements Closeable {
+
+  private static final String OPTIONS_KEY = "options";
+  private static final String STATE_VERSION = "2";
+  private static final String HASH_SUFFIX = ".hash";
+  private static final String CLASSES_SUFFIX = ".classes";
+  private static final String DEPENDENCIES_SUFFIX = ".dependencies";
+  private static final String CONSTANTS_SUFFIX = ".constants";
+
+  private final EnunciateLogger logger;
+  private final File sourceDir;
+  private final File compileDir;
+  private final File stateFile;
+  private final JavaCompiler compiler = JavacTool.create();
+  private StandardJavaFileManager fileManager;
+  private int compiledSources = 0;
+  private int reusedSources = 0;
+
+  /**
+   * @param logger The logger.
+   * @param sourceDir The directory containing the sources.
+   * @param compileDir The directory to compile the classes into.
+   * @param stateFile The file in which to store the state of the compile. Should not be in the compile directory.
+   */
+  public IncrementalJavaCompiler(EnunciateLogger logger, File sourceDir, File compileDir, File stateFile) {
+    this.logger = logger;
+    this.sourceDir = sourceDir;
+    this.compileDir = compileDir;
+    this.stateFile = stateFile;
+  }
+
+  /**
+   * Compile the specified sources.
+   *
+   * @param sources The sources (all of which must be in the source directory).
+   * @param classpath The classpath.
+   * @param options The compiler options, not including the classpath or destination directory.
+   * @return Whether the compile succeeded.
+   */
+  public boolean compile(List<File> sources, String classpath, List<String> options) throws IOException {
+    this.compiledSources = 0;
+    this.reusedSources = 0;
+    if (this.fileManager == null) {
+      this.fileManager = this.compiler.getStandardFileManager(null, null, null);
+    }
+    else {
+      this.fileManager.flush();
+    }
+
+    String signature = signature(classpath, options);
+    Properties previous = loadState(signature);
+
+    Map<String, File> sourcesByPath = new TreeMap<String, File>();
+    Map<String, String> hashes = new HashMap<String, String>();
+    for (File source : sources) {
+      String path = relativePath(source);
+      sourcesByPath.put(path, source);
+      hashes.put(path, hash(source));
+    }
+
+    if (previous != null && removedConstants(previous, sourcesByPath)) {
+      this.logger.debug("Compile-time constants of a removed source may have been inlined; recompiling all sources...");
+      deleteClasses(previous);
+      previous = null;
+    }
+
+    Properties state = new Properties();
+    state.setProperty(OPTIONS_KEY, signature);
+
+    if (previous != null) {
+      Set<String> dirty = findDirtySources(previous, sourcesByPath, hashes);
+      for (String path : sourcesByPath.keySet()) {
+        if (!dirty.contains(path)) {
+          copySourceState(previous, state, path);
+        }
+      }
+
+      if (dirty.isEmpty()) {
+        this.reusedSources = sourcesByPath.size();
+        this.logger.debug("All %s compiled sources are unchanged.", this.reusedSources);
+        saveState(state);
+        return true;
+      }
+
+      List<File> toCompile = new ArrayList<File>(dirty.size());
+      for (String path : dirty) {
+        toCompile.add(sourcesByPath.get(path));
+      }
+
+      this.logger.debug("Recompiling %s of %s sources...", toCompile.size(), sourcesByPath.size());
+      String incrementalClasspath = classpath == null || classpath.isEmpty() ? this.compileDir.getAbsolutePath() : this.compileDir.getAbsolutePath() + File.pathSeparator + classpath;
+      if (compile(toCompile, incrementalClasspath, options, hashes, state, false)) {
+        if (!changedConstants(previous, state, dirty)) {
+          this.compiledSources = toCompile.size();
+          this.reusedSources = sourcesByPath.size() - toCompile.size();
+          saveState(state);
+          return true;
+        }
+
+        this.logger.debug("Compile-time constants have changed and may have been inlined; recompiling all sources...");
+        deleteClasses(state);
+      }
+      else {
+        this.logger.debug("Incremental compile failed; recompiling all sources...");
+        deleteClasses(previous);
+      }
+      state = new Properties();
+      state.setProperty(OPTIONS_KEY, signature);
+    }
+
+    boolean success = compile(new ArrayList<File>(sourcesByPath.values()), classpath, options, hashes, state, true);
+    if (success) {
+      this.compiledSources = sourcesByPath.size();
+      saveState(state);
+    }
+    else {
+      this.stateFile.delete();
+    }
+    return success;
+  }
+
+  /**
+   * Close the compiler, releasing its file manager.
+   */
+  public void close() throws IOException {
+    if (this.fileManager != null) {
+      this.fileManager.close();
+      this.fileManager = null;
+    }
+  }
+
+  /**
+   * The number of sources compiled by the last compile.
+   *
+   * @return The number of sources compiled by the last compile.
+   */
+  public int getCompiledSources() {
+    return compiledSources;
+  }
+
+  /**
+   * The number of sources whose classes were reused by the last compile.
+   *
+   * @return The number of sources whose classes were reused by the last compile.
+   */
+  public int getReusedSources() {
+    return reusedSources;
+  }
+
+  /**
+   * Find the sources that need to be compiled: the new and changed sources, plus (transitively) the sources that
+   * depend on them or on sources that were removed. The classes of the removed and dirty sources are deleted.
+   */
+  private Set<String> findDirtySources(Properties previous, Map<String, File> sourcesByPath, Map<String, String> hashes) {
+    Set<String> changed = new TreeSet<String>();
+    Map<String, Set<String>> dependents = new HashMap<String, Set<String>>();
+    for (String key : previous.stringPropertyNames()) {
+      if (key.endsWith(HASH_SUFFIX)) {
+        String path = key.substring(0, key.length() - HASH_SUFFIX.length());
+        if (!sourcesByPath.containsKey(path)) {
+          //removed.
+          changed.add(path);
+        }
+
+        for (String dependency : split(previous.getProperty(path + DEPENDENCIES_SUFFIX))) {
+          Set<String> set = dependents.get(dependency);
+          if (set == null) {
+            set = new TreeSet<String>();
+            dependents.put(dependency, set);
+          }
+          set.add(path);
+        }
+      }
+    }
+
+    for (Map.Entry<String, String> hash : hashes.entrySet()) {
+      if (!hash.getValue().equals(previous.getProperty(hash.getKey() + HASH_SUFFIX))) {
+        changed.add(hash.getKey());
+      }
+      else {
+        for (String className : split(previous.getProperty(hash.getKey() + CLASSES_SUFFIX))) {
+          if (!classFile(className).exists()) {
+            //classes have been deleted out from under us.
+            changed.add(hash.getKey());
+            break;
+          }
+        }
+      }
+    }
+
+    Set<String> affected = new TreeSet<String>();
+    LinkedList<String> pending = new LinkedList<String>(changed);
+    while (!pending.isEmpty()) {
+      String path = pending.removeFirst();
+      if (affected.add(path)) {
+        Set<String> set = dependents.get(path);
+        if (set != null) {
+          pending.addAll(set);
+        }
+      }
+    }
+
+    Set<String> dirty = new TreeSet<String>();
+    for (String path : affected) {
+      for (String className : split(previous.getProperty(path + CLASSES_SUFFIX))) {
+        classFile(className).delete();
+      }
+
+      if (sourcesByPath.containsKey(path)) {
+        dirty.add(path);
+      }
+    }
+    return dirty;
+  }
+
+  /**
+   * Whether any of the sources that were removed since the previous compile declared compile-time constants.
+   */
+  private boolean removedConstants(Properties previous, Map<String, File> sourcesByPath) {
+    for (String key : previous.stringPropertyNames()) {
+      if (key.endsWith(HASH_SUFFIX)) {
+        String path = key.substring(0, key.length() - HASH_SUFFIX.length());
+        if (!sourcesByPath.containsKey(path) && !previous.getProperty(path + CONSTANTS_SUFFIX, "").isEmpty()) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Whether any of the recompiled sources changed the compile-time constants it declared in the previous compile.
+   */
+  private boolean changedConstants(Properties previous, Properties state, Set<String> recompiled) {
+    for (String path : recompiled) {
+      String previousConstants = previous.getProperty(path + CONSTANTS_SUFFIX);
+      if (previousConstants != null && !previousConstants.equals(state.getProperty(path + CONSTANTS_SUFFIX, ""))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private boolean compile(List<File> sources, String classpath, List<String> options, Map<String, String> hashes, final Properties state, boolean full) throws IOException {
+    List<String> args = new ArrayList<String>(options);
+    if (classpath != null && !classpath.isEmpty()) {
+      args.add("-cp");
+      args.add(classpath);
+    }
+    args.add("-d");
+    args.add(this.compileDir.getAbsolutePath());
+
+    final Map<String, Set<String>> classesBySource = new TreeMap<String, Set<String>>();
+    JavaFileManager recordingFileManager = new ForwardingJavaFileManager<StandardJavaFileManager>(this.fileManager) {
+      @Override
+      public JavaFileObject getJavaFileForOutput(Location location, String className, JavaFileObject.Kind kind, FileObject sibling) throws IOException {
+        if (kind == JavaFileObject.Kind.CLASS && sibling != null && "file".equalsIgnoreCase(sibling.toUri().getScheme())) {
+          String path = relativePath(new File(sibling.toUri()));
+          Set<String> classes = classesBySource.get(path);
+          if (classes == null) {
+            classes = new TreeSet<String>();
+            classesBySource.put(path, classes);
+          }
+          classes.add(className);
+        }
+        return super.getJavaFileForOutput(location, className, kind, sibling);
+      }
+    };
+
+    DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<JavaFileObject>();
+    JavaCompiler.CompilationTask task = this.compiler.getTask(null, recordingFileManager, diagnostics, args, null, this.fileManager.getJavaFileObjectsFromFiles(sources));
+    boolean success = task.call();
+    for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+      String source = diagnostic.getSource() == null ? "" : diagnostic.getSource().getName();
+      if (full && diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+        this.logger.error("[javac] %s:%s:%s %s", source, diagnostic.getLineNumber(), diagnostic.getColumnNumber(), diagnostic.getMessage(null));
+      }
+      else {
+        //errors of a failed incremental compile are reported by the full compile that follows it.
+        this.logger.debug("[javac] [%s] %s:%s:%s %s", diagnostic.getKind(), source, diagnostic.getLineNumber(), diagnostic.getColumnNumber(), diagnostic.getMessage(null));
+      }
+    }
+
+    if (!success) {
+      return false;
+    }
+
+    for (Map.Entry<String, Set<String>> entry : classesBySource.entrySet()) {
+      state.setProperty(entry.getKey() + CLASSES_SUFFIX, join(entry.getValue()));
+    }
+    for (File source : sources) {
+      String path = relativePath(source);
+      state.setProperty(path + HASH_SUFFIX, hashes.get(path));
+    }
+
+    //now that every source's classes are known, record each compiled source's dependencies.
+    Map<String, String> sourcesByClass = new HashMap<String, String>();
+    for (String key : state.stringPropertyNames()) {
+      if (key.endsWith(CLASSES_SUFFIX)) {
+        String path = key.substring(0, key.length() - CLASSES_SUFFIX.length());
+        for (String className : split(state.getProperty(key))) {
+          sourcesByClass.put(className.replace('.', '/'), path);
+        }
+      }
+    }
+
+    for (Map.Entry<String, Set<String>> entry : classesBySource.entrySet()) {
+      Set<String> dependencies = new TreeSet<String>();
+      Set<String> constants = new TreeSet<String>();
+      for (String className : entry.getValue()) {
+        ClassFileInfo classFileInfo = readClassFile(classFile(className));
+        for (String reference : classFileInfo.references) {
+          String dependency = sourcesByClass.get(reference);
+          if (dependency != null && !dependency.equals(entry.getKey())) {
+            dependencies.add(dependency);
+          }
+        }
+        for (String constant : classFileInfo.constants) {
+          constants.add(className + '.' + constant);
+        }
+      }
+      state.setProperty(entry.getKey() + DEPENDENCIES_SUFFIX, join(dependencies));
+      state.setProperty(entry.getKey() + CONSTANTS_SUFFIX, constants.isEmpty() ? "" : hash(join(constants).getBytes(Charset.forName("UTF-8"))));
+    }
+
+    return true;
+  }
+
+  private void copySourceState(Properties from, Properties to, String path) {
+    for (String suffix : Arrays.asList(HASH_SUFFIX, CLASSES_SUFFIX, DEPENDENCIES_SUFFIX, CONSTANTS_SUFFIX)) {
+      String value = from.getProperty(path + suffix);
+      if (value != null) {
+        to.setProperty(path + suffix, value);
+      }
+    }
+  }
+
+  private void deleteClasses(Properties state) {
+    for (String key : state.stringPropertyNames()) {
+      if (key.endsWith(CLASSES_SUFFIX)) {
+        for (String className : split(state.getProperty(key))) {
+          classFile(className).delete();
+        }
+      }
+    }
+  }
+
+  private Properties loadState(String signature) throws IOException {
+    if (!this.stateFile.exists()) {
+      return null;
+    }
+
+    Properties state = new Properties();
+    InputStream in = new FileInputStream(this.stateFile);
+    try {
+      state.load(in);
+    }
+    finally {
+      in.close();
+    }
+
+    if (!signature.equals(state.getProperty(OPTIONS_KEY))) {
+      this.logger.debug("Compiler options have changed; recompiling all sources...");
+      deleteClasses(state);
+      return null;
+    }
+
+    return state;
+  }
+
+  private void saveState(Properties state) throws IOException {
+    OutputStream out = new FileOutputStream(this.stateFile);
+    try {
+      state.store(out, null);
+    }
+    finally {
+      out.close();
+    }
+  }
+
+  private File classFile(String className) {
+    return new File(this.compileDir, className.replace('.', File.separatorChar) + ".class");
+  }
+
+  private String relativePath(File source) {
+    String base = this.sourceDir.getAbsolutePath();
+    String path = source.getAbsolutePath();
+    if (path.startsWith(base + File.separator)) {
+      path = path.substring(base.length() + 1);
+    }
+    return path.replace(File.separatorChar, '/');
+  }
+
+  private static String signature(String classpath, List<String> options) {
+    StringBuilder signature = new StringBuilder(STATE_VERSION).append(' ');
+    for (String option : options) {
+      signature.append(option).append(' ');
+    }
+    signature.append(classpath);
+    return hash(signature.toString().getBytes(Charset.forName("UTF-8")));
+  }
+
+  private static String hash(File file) throws IOException {
+    MessageDigest digest = newDigest();
+    InputStream in = new FileInputStream(file);
+    try {
+      byte[] buffer = new byte[8192];
+      int len;
+      while ((len = in.read(buffer)) > 0) {
+        digest.update(buffer, 0, len);
+      }
+    }
+    finally {
+      in.close();
+    }
+    return hex(digest.digest());
+  }
+
+  private static String hash(byte[] bytes) {
+    return hex(newDigest().digest(bytes));
+  }
+
+  private static MessageDigest newDigest() {
+    try {
+      return MessageDigest.getInstance("SHA-1");
+    }
+    catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static String hex(byte[] bytes) {
+    StringBuilder hex = new StringBuilder(bytes.length * 2);
+    for (byte b : bytes) {
+      hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+    }
+    return hex.toString();
+  }
+
+  private static String join(Collection<String> values) {
+    StringBuilder joined = new StringBuilder();
+    for (String value : values) {
+      if (joined.length() > 0) {
+        joined.append(',');
+      }
+      joined.append(value);
+    }
+    return joined.toString();
+  }
+
+  private static List<String> split(String value) {
+    if (value == null || value.isEmpty()) {
+      return Collections.emptyList();
+    }
+    return Arrays.asList(value.split(","));
+  }
+
+  /**
+   * Read a class file: the (internal) names of the classes it references (the names of its class constants and the
+   * class names in its descriptors and signatures), and the compile-time constants it declares.
+   *
+   * @param classFile The class file.
+   * @return The class file info.
+   */
+  static ClassFileInfo readClassFile(File classFile) throws IOException {
+    ClassFileInfo info = new ClassFileInfo();
+    if (!classFile.exists()) {
+      return info;
+    }
+
+    DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(classFile)));
+    try {
+      in.readInt(); //magic
+      in.readUnsignedShort(); //minor
+      in.readUnsignedShort(); //major
+      int count = in.readUnsignedShort();
+      Object[] pool = new Object[count];
+      for (int i = 1; i < count; i++) {
+        int tag = in.readUnsignedByte();
+        switch (tag) {
+          case 1: //utf8
+            String utf8 = in.readUTF();
+            pool[i] = utf8;
+            addReferences(utf8, info.references);
+            break;
+          case 8: //string
+            pool[i] = new StringConstant(in.readUnsignedShort());
+            break;
+          case 7: //class
+          case 16: //method type
+          case 19: //module
+          case 20: //package
+            in.readUnsignedShort();
+            break;
+          case 15: //method handle
+            in.readUnsignedByte();
+            in.readUnsignedShort();
+            break;
+          case 3: //integer
+            pool[i] = in.readInt();
+            break;
+          case 4: //float
+            pool[i] = Float.intBitsToFloat(in.readInt());
+            break;
+          case 9: //field ref
+          case 10: //method ref
+          case 11: //interface method ref
+          case 12: //name and type
+          case 17: //dynamic
+          case 18: //invoke dynamic
+            in.readInt();
+            break;
+          case 5: //long
+            pool[i] = in.readLong();
+            i++;
+            break;
+          case 6: //double
+            pool[i] = Double.longBitsToDouble(in.readLong());
+            i++;
+            break;
+          default:
+            //unknown constant; we can't read any further, so assume the class declares constants.
+            info.constants.add("?");
+            return info;
+        }
+      }
+
+      in.readUnsignedShort(); //access flags
+      in.readUnsignedShort(); //this class
+      in.readUnsignedShort(); //super class
+      int interfaces = in.readUnsignedShort();
+      for (int i = 0; i < interfaces; i++) {
+        in.readUnsignedShort();
+      }
+
+      int fields = in.readUnsignedShort();
+      for (int i = 0; i < fields; i++) {
+        in.readUnsignedShort(); //access flags
+        Object name = pool[in.readUnsignedShort()];
+        Object descriptor = pool[in.readUnsignedShort()];
+        int attributes = in.readUnsignedShort();
+        for (int j = 0; j < attributes; j++) {
+          Object attributeName = pool[in.readUnsignedShort()];
+          int length = in.readInt();
+          if ("ConstantValue".equals(attributeName) && length == 2) {
+            Object value = pool[in.readUnsignedShort()];
+            if (value instanceof StringConstant) {
+              value = "\"" + pool[((StringConstant) value).index] + "\"";
+            }
+            info.constants.add(name + ":" + descriptor + "=" + value);
+          }
+          else {
+            in.readFully(new byte[length]);
+          }
+        }
+      }
+    }
+    finally {
+      in.close();
+    }
+    return info;
+  }
+
+  private static void addReferences(String constant, Set<String> references) {
+    //class constants are bare internal names; descriptors and signatures wrap them as "Lname;" (or "Lname<...>;").
+    references.add(constant);
+    StringTokenizer tokens = new StringTokenizer(constant, "()[;<>:+-*");
+    while (tokens.hasMoreTokens()) {
+      String token = tokens.nextToken();
+      int start = token.indexOf('L');
+      if (start >= 0 && start < token.length() - 1) {
+        references.add(token.substring(start + 1));
+      }
+    }
+  }
+
+  /**
+   * What's read from a class file.
+   */
+  static class ClassFileInfo {
+    final Set<String> references = new HashSet<String>();
+    final Set<String> constants = new TreeSet<String>();
+  }
+
+  private static class StringConstant {
+    final int index;
+
+    StringConstant(int index) {
+      this.index = index;
+    }
+  }
+}
@@ -0,0 +1,83 @@
+/**
+ * Copyright © 2006-2016 Web Cohesion (info@webcohesion.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webcohesion.enunciate.util;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A trie of package conversions, used to find the conversion with the longest prefix of a package (or class) name
+ * in a single pass over the name. Conversions match on plain prefixes (not just whole segments), same as they always
+ * have.
+ *
+ * @author Ryan Heaton
+ */
+public class PackagePrefixTrie {
+
+  private final Node root = new Node();
+
+  public PackagePrefixTrie(Map<String, String> conversions) {
+    if (conversions != null) {
+      for (Map.Entry<String, String> conversion : conversions.entrySet()) {
+        put(conversion.getKey(), conversion.getValue());
+      }
+    }
+  }
+
+  private void put(String prefix, String conversion) {
+    Node node = this.root;
+    for (int i = 0; i < prefix.length(); i++) {
+      char c = prefix.charAt(i);
+      Node child = node.children.get(c);
+      if (child == null) {
+        child = new Node();
+        node.children.put(c, child);
+      }
+      node = child;
+    }
+    node.conversion = conversion;
+  }
+
+  /**
+   * Converts the specified name using the conversion with the longest matching prefix.
+   *
+   * @param fqn The name to convert.
+   * @return The converted name, or the original if no conversion applies.
+   */
+  public String convert(String fqn) {
+    Node node = this.root;
+    String conversion = node.conversion;
+    int matched = 0;
+    for (int i = 0; i < fqn.length(); i++) {
+      node = node.children.get(fqn.charAt(i));
+      if (node == null) {
+        break;
+      }
+
+      if (node.conversion != null) {
+        conversion = node.conversion;
+        matched = i + 1;
+      }
+    }
+
+    return conversion == null ? fqn : conversion + fqn.substring(matched);
+  }
+
+  private static class Node {
+    final Map<Character, Node> children = new HashMap<Character, Node>(4);
+    String conversion;
+  }
+}
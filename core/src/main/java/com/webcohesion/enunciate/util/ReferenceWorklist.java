@@ -0,0 +1,113 @@
+/**
+ * Copyright © 2006-2016 Web Cohesion (info@webcohesion.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webcohesion.enunciate.util;
+
+import javax.lang.model.element.Element;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.Set;
+
+/**
+ * A worklist for walking the graph of types referenced by an API. Instead of recursing into the references of
+ * each newly-discovered type (which blows the stack on deeply-nested models), a syntax enqueues the type and the
+ * outermost call drains the worklist iteratively. Each type is visited at most once, keyed by its id (e.g. its
+ * qualified name).
+ *
+ * @author Ryan Heaton
+ */
+public class ReferenceWorklist<T> {
+
+  /**
+   * Visits the references of a node, possibly enqueueing more nodes.
+   *
+   * @param <T> The type of node.
+   */
+  public interface ReferenceVisitor<T> {
+
+    /**
+     * Visit the references of the specified node.
+     *
+     * @param node The node.
+     * @param stack The context stack, i.e. the path by which the node was reached.
+     */
+    void visitReferences(T node, LinkedList<Element> stack);
+  }
+
+  private final LinkedList<Entry<T>> pending = new LinkedList<Entry<T>>();
+  private final Set<String> visited = new HashSet<String>();
+  private boolean draining = false;
+
+  /**
+   * Enqueue a node to have its references visited.
+   *
+   * @param id The id of the node.
+   * @param node The node.
+   * @param stack The context stack. A copy is taken, so the caller is free to continue modifying it.
+   * @return Whether the node was enqueued (false if the node had already been visited).
+   */
+  public boolean enqueue(String id, T node, LinkedList<Element> stack) {
+    if (!this.visited.add(id)) {
+      return false;
+    }
+
+    this.pending.add(new Entry<T>(node, new LinkedList<Element>(stack)));
+    return true;
+  }
+
+  /**
+   * Whether the node with the specified id has been visited (or enqueued).
+   *
+   * @param id The id.
+   * @return Whether the node with the specified id has been visited.
+   */
+  public boolean isVisited(String id) {
+    return this.visited.contains(id);
+  }
+
+  /**
+   * Drain the worklist. If the worklist is already being drained further up the call stack, this is a no-op and the
+   * pending nodes will be visited when control returns there.
+   *
+   * @param visitor The visitor.
+   */
+  public void drain(ReferenceVisitor<T> visitor) {
+    if (this.draining) {
+      return;
+    }
+
+    this.draining = true;
+    try {
+      while (!this.pending.isEmpty()) {
+        Entry<T> entry = this.pending.removeFirst();
+        visitor.visitReferences(entry.node, entry.stack);
+      }
+    }
+    finally {
+      this.pending.clear();
+      this.draining = false;
+    }
+  }
+
+  private static class Entry<T> {
+    final T node;
+    final LinkedList<Element> stack;
+
+    Entry(T node, LinkedList<Element> stack) {
+      this.node = node;
+      this.stack = stack;
+    }
+  }
+}
@@ -0,0 +1,46 @@
+/**
+ * Copyright © 2006-2016 Web Cohesion (info@webcohesion.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webcohesion.enunciate.util;
+
+import java.util.Comparator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Base comparator for resource paths. Each path is split into its segments once per comparator, instead of once
+ * per comparison.
+ *
+ * @author Ryan Heaton
+ */
+public abstract class ResourcePathComparator implements Comparator<String> {
+
+  private final ConcurrentMap<String, String[]> segments = new ConcurrentHashMap<String, String[]>();
+
+  /**
+   * The segments of the specified path.
+   *
+   * @param path The path.
+   * @return The segments of the path.
+   */
+  protected String[] segments(String path) {
+    String[] segments = this.segments.get(path);
+    if (segments == null) {
+      segments = path.split("/");
+      this.segments.put(path, segments);
+    }
+    return segments;
+  }
+}
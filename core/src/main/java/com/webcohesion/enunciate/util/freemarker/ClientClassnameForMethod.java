@@ -144,8 +144,7 @@ public class ClientClassnameForMethod extends ClientPackageForMethod {
 
   @Override
   public String convert(TypeElement declaration) throws TemplateModelException {
-    PackageElement pkg = this.context.getProcessingEnvironment().getElementUtils().getPackageOf(declaration);
-    String convertedPackage = convertPackage(pkg);
+    String convertedPackage = convertPackage(packageOf(declaration));
     String simpleName = declaration.getSimpleName().toString();
     return convertedPackage + getPackageSeparator() + simpleName;
   }
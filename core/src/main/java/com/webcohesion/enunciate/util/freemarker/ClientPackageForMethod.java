@@ -17,6 +17,8 @@ package com.webcohesion.enunciate.util.freemarker;
 
 import com.webcohesion.enunciate.EnunciateContext;
 import com.webcohesion.enunciate.metadata.ClientName;
+import com.webcohesion.enunciate.util.PackagePrefixTrie;
+import freemarker.ext.beans.BeansWrapper;
 import freemarker.ext.beans.BeansWrapperBuilder;
 import freemarker.template.Configuration;
 import freemarker.template.TemplateMethodModelEx;
@@ -34,16 +36,32 @@ import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * Gets the qualified package name for a package or type.
+ * Gets the qualified package name for a package or type.<br/>
+ * <br/>
+ * These methods are called for nearly every line of generated client code, so the conversions are memoized: the
+ * conversion of each type or type mirror passed in from a template is cached by identity, as are the package
+ * conversions.
  *
  * @author Ryan Heaton
  */
 public class ClientPackageForMethod implements TemplateMethodModelEx {
 
+  private static final BeansWrapper WRAPPER = new BeansWrapperBuilder(Configuration.getVersion()).build();
+
   protected final TreeMap<String, String> conversions;
   protected final EnunciateContext context;
+  private final PackagePrefixTrie conversionTrie;
+  private final ConcurrentMap<String, String> nameConversions = new ConcurrentHashMap<String, String>();
+  private final ConcurrentMap<Object, String> packageConversions = new ConcurrentHashMap<Object, String>();
+  private final ConcurrentMap<Object, PackageElement> packages = new ConcurrentHashMap<Object, PackageElement>();
+  private final ConcurrentMap<IdentityKey, String> unwrappedConversions = new ConcurrentHashMap<IdentityKey, String>();
+  private final AtomicLong cacheHits = new AtomicLong();
+  private final AtomicLong cacheMisses = new AtomicLong();
 
   /**
    * @param conversions The conversions.
@@ -59,6 +77,7 @@ public class ClientPackageForMethod implements TemplateMethodModelEx {
       this.conversions.putAll(conversions);
     }
 
+    this.conversionTrie = new PackagePrefixTrie(this.conversions);
     this.context = context;
   }
 
@@ -74,11 +93,55 @@ public class ClientPackageForMethod implements TemplateMethodModelEx {
     }
 
     Object unwrapped = unwrap(list.get(0));
-    return convertUnwrappedObject(unwrapped);
+    if (!(unwrapped instanceof TypeElement) && !(unwrapped instanceof TypeMirror)) {
+      return convertUnwrappedObject(unwrapped);
+    }
+
+    //types and type mirrors are converted the same way every time they're passed in from a template.
+    IdentityKey key = new IdentityKey(unwrapped);
+    String conversion = this.unwrappedConversions.get(key);
+    if (conversion == null) {
+      this.cacheMisses.incrementAndGet();
+      conversion = convertUnwrappedObject(unwrapped);
+      this.unwrappedConversions.put(key, conversion);
+    }
+    else {
+      this.cacheHits.incrementAndGet();
+    }
+    return conversion;
   }
 
   protected Object unwrap(Object wrapped) throws TemplateModelException {
-    return wrapped instanceof TemplateModel ? new BeansWrapperBuilder(Configuration.getVersion()).build().unwrap((TemplateModel) wrapped) : wrapped;
+    return wrapped instanceof TemplateModel ? WRAPPER.unwrap((TemplateModel) wrapped) : wrapped;
+  }
+
+  /**
+   * The number of conversions that were served from the cache.
+   *
+   * @return The number of conversions that were served from the cache.
+   */
+  public long getCacheHits() {
+    return cacheHits.get();
+  }
+
+  /**
+   * The number of conversions that had to be computed.
+   *
+   * @return The number of conversions that had to be computed.
+   */
+  public long getCacheMisses() {
+    return cacheMisses.get();
+  }
+
+  /**
+   * The fraction of conversions that were served from the cache.
+   *
+   * @return The fraction of conversions that were served from the cache.
+   */
+  public double getCacheHitRate() {
+    long hits = cacheHits.get();
+    long total = hits + cacheMisses.get();
+    return total == 0 ? 0 : ((double) hits) / total;
   }
 
   /**
@@ -139,7 +202,24 @@ public class ClientPackageForMethod implements TemplateMethodModelEx {
    * @return The client-side package value for the declaration.
    */
   public String convert(TypeElement declaration) throws TemplateModelException {
-    return convert(this.context.getProcessingEnvironment().getElementUtils().getPackageOf(declaration));
+    return convert(packageOf(declaration));
+  }
+
+  /**
+   * The package of the specified type.
+   *
+   * @param declaration The type.
+   * @return The package of the type.
+   */
+  protected PackageElement packageOf(TypeElement declaration) {
+    PackageElement pkg = this.packages.get(declaration);
+    if (pkg == null) {
+      pkg = this.context.getProcessingEnvironment().getElementUtils().getPackageOf(declaration);
+      if (pkg != null) {
+        this.packages.put(declaration, pkg);
+      }
+    }
+    return pkg;
   }
 
   /**
@@ -153,8 +233,13 @@ public class ClientPackageForMethod implements TemplateMethodModelEx {
       return "";
     }
 
-    ClientName specifiedName = packageDeclaration.getAnnotation(ClientName.class);
-    return specifiedName == null ? convert(packageDeclaration.getQualifiedName().toString()) : specifiedName.value();
+    String conversion = this.packageConversions.get(packageDeclaration);
+    if (conversion == null) {
+      ClientName specifiedName = packageDeclaration.getAnnotation(ClientName.class);
+      conversion = specifiedName == null ? convert(packageDeclaration.getQualifiedName().toString()) : specifiedName.value();
+      this.packageConversions.put(packageDeclaration, conversion);
+    }
+    return conversion;
   }
 
   /**
@@ -165,18 +250,34 @@ public class ClientPackageForMethod implements TemplateMethodModelEx {
    */
   public String convert(String fqn) {
     //todo: support for regular expressions or wildcards?
-    if (this.conversions.containsKey(fqn)) {
-      return this.conversions.get(fqn);
+    String conversion = this.nameConversions.get(fqn);
+    if (conversion == null) {
+      conversion = this.conversionTrie.convert(fqn);
+      this.nameConversions.put(fqn, conversion);
     }
+    return conversion;
+  }
 
-    for (String pkg : this.conversions.keySet()) {
-      if (fqn.startsWith(pkg)) {
-        String conversion = conversions.get(pkg);
-        return conversion + fqn.substring(pkg.length());
-      }
+  /**
+   * Identity-based key. Decorated elements are equal to the elements they decorate, but a model object (e.g. a type
+   * definition) can convert differently than the plain element it decorates.
+   */
+  private static final class IdentityKey {
+    private final Object value;
+
+    private IdentityKey(Object value) {
+      this.value = value;
     }
 
-    return fqn;
+    @Override
+    public boolean equals(Object o) {
+      return o instanceof IdentityKey && ((IdentityKey) o).value == this.value;
+    }
+
+    @Override
+    public int hashCode() {
+      return System.identityHashCode(this.value);
+    }
   }
 
 }
@@ -16,22 +16,30 @@
 package com.webcohesion.enunciate.util.freemarker;
 
 import com.webcohesion.enunciate.EnunciateLogger;
+import com.webcohesion.enunciate.util.IfChangedFileWriter;
 import freemarker.core.Environment;
 import freemarker.template.*;
 import freemarker.template.utility.DeepUnwrap;
 
 import java.io.File;
 import java.io.IOException;
-import java.io.PrintWriter;
+import java.io.Writer;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
+ * Directive for rendering a file. The body is rendered into a buffer and the file is only (re)written if its content
+ * changed, so unchanged files keep their timestamps. If the body fails to render, the file is left alone. The directive
+ * can be shared by templates rendered concurrently.
+ *
  * @author Ryan Heaton
  */
 public class FileDirective implements TemplateDirectiveModel {
 
   private final File outputDir;
   private final EnunciateLogger logger;
+  private final AtomicInteger writtenFiles = new AtomicInteger();
+  private final AtomicInteger skippedFiles = new AtomicInteger();
 
   public FileDirective(File outputDir, EnunciateLogger logger) {
     this.outputDir = outputDir;
@@ -73,9 +81,90 @@ public class FileDirective implements TemplateDirectiveModel {
       output.getParentFile().mkdirs();
     }
 
-    PrintWriter writer = new PrintWriter(output, charset);
+    Writer writer = openWriter(output, charset);
     this.logger.debug("Writing %s...", output);
-    body.render(writer);
-    writer.close();
+    boolean rendered = false;
+    try {
+      body.render(writer);
+      rendered = true;
+    }
+    finally {
+      if (rendered) {
+        writer.close();
+      }
+      else {
+        discard(writer);
+      }
+    }
+  }
+
+  /**
+   * Discards a writer whose body failed to render, so the file isn't replaced with a partial rendering and the writer
+   * releases its resources without hiding the failure.
+   *
+   * @param writer The writer.
+   */
+  protected void discard(Writer writer) {
+    if (writer instanceof IfChangedFileWriter) {
+      ((IfChangedFileWriter) writer).discard();
+    }
+    else {
+      try {
+        writer.close();
+      }
+      catch (IOException e) {
+        this.logger.debug("Unable to close writer: %s", e.getMessage());
+      }
+    }
+  }
+
+  /**
+   * Opens the writer to the specified output file. The file is written when the writer is closed, and only if its
+   * content changed.
+   *
+   * @param output The output file.
+   * @param charset The charset.
+   * @return The writer.
+   */
+  protected Writer openWriter(final File output, String charset) throws IOException {
+    return new IfChangedFileWriter(output, charset) {
+
+      private boolean counted = false;
+
+      @Override
+      public void close() throws IOException {
+        super.close();
+        if (this.counted) {
+          return;
+        }
+
+        this.counted = true;
+        if (isWritten()) {
+          writtenFiles.incrementAndGet();
+        }
+        else {
+          skippedFiles.incrementAndGet();
+          logger.debug("Skipped writing %s: content unchanged.", output);
+        }
+      }
+    };
+  }
+
+  /**
+   * The number of files that were written.
+   *
+   * @return The number of files that were written.
+   */
+  public int getWrittenFiles() {
+    return writtenFiles.get();
+  }
+
+  /**
+   * The number of files that weren't written because their content was unchanged.
+   *
+   * @return The number of files that weren't written because their content was unchanged.
+   */
+  public int getSkippedFiles() {
+    return skippedFiles.get();
   }
 }
@@ -111,6 +111,33 @@ public class EnunciateTest {
     assertFalse(scannedEntries.isEmpty());
   }
 
+  @Test
+  public void testArchiveFingerprint() throws Exception {
+    Enunciate enunciate = new Enunciate();
+    File jar1 = File.createTempFile("EnunciateTest", ".jar");
+    writeJar(jar1, 1000000000000L, "content");
+    assertTrue(jar1.setLastModified(1000000000000L));
+    File jar2 = File.createTempFile("EnunciateTest", ".jar");
+    writeJar(jar2, 1400000000000L, "content");
+    assertTrue(jar2.setLastModified(1400000000000L));
+    File jar3 = File.createTempFile("EnunciateTest", ".jar");
+    writeJar(jar3, 1000000000000L, "changed");
+
+    //the same content built at different times (e.g. on different machines) has the same fingerprint.
+    assertEquals(enunciate.fingerprintArchive(jar1), enunciate.fingerprintArchive(jar2));
+    assertFalse(enunciate.fingerprintArchive(jar1).equals(enunciate.fingerprintArchive(jar3)));
+  }
+
+  private static void writeJar(File file, long time, String content) throws IOException {
+    JarOutputStream out = new JarOutputStream(new FileOutputStream(file));
+    JarEntry entry = new JarEntry("pckg/Resource.txt");
+    entry.setTime(time);
+    out.putNextEntry(entry);
+    out.write(content.getBytes("utf-8"));
+    out.closeEntry();
+    out.close();
+  }
+
   private List<URL> buildTestClasspath() throws Exception {
     JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
 
@@ -0,0 +1,175 @@
+/**
+ * Copyright © 2006-2016 Web Cohesion (info@webcohesion.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webcohesion.enunciate.artifacts;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.TreeSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Ryan Heaton
+ */
+public class ArtifactRegistryTest {
+
+  @Test
+  public void testAddAndFind() throws Exception {
+    ArtifactRegistry registry = new ArtifactRegistry();
+    FileArtifact artifact = new FileArtifact("docs", "docs.artifact", new File("docs"));
+    artifact.addAlias("docs.alias");
+    assertTrue(registry.add(artifact));
+    assertFalse("the first artifact of an id should win", registry.add(new FileArtifact("other", "docs.artifact", new File("other"))));
+
+    assertSame(artifact, registry.find("docs.artifact"));
+    assertSame(artifact, registry.find("docs.alias"));
+    assertNull(registry.find("unknown"));
+    assertEquals(1, registry.getArtifacts().size());
+    assertEquals(1, registry.getArtifacts("docs").size());
+    assertTrue(registry.getArtifacts("other").isEmpty());
+
+    //aliases can be added after the artifact is registered.
+    artifact.addAlias("docs.late.alias");
+    assertSame(artifact, registry.find("docs.late.alias"));
+  }
+
+  @Test
+  public void testSnapshotIsReused() throws Exception {
+    ArtifactRegistry registry = new ArtifactRegistry();
+    registry.add(new FileArtifact("docs", "a", new File("a")));
+    assertSame(registry.getArtifacts(), registry.getArtifacts());
+
+    registry.add(new FileArtifact("docs", "b", new File("b")));
+    assertEquals(2, registry.getArtifacts().size());
+  }
+
+  @Test
+  public void testFrozenAfterAllModulesComplete() throws Exception {
+    ArtifactRegistry registry = new ArtifactRegistry();
+    registry.expectModule("jaxrs", Collections.<String>emptySet());
+    registry.expectModule("docs", Collections.singleton("jaxrs"));
+
+    registry.moduleCompleted("jaxrs");
+    assertFalse(registry.isFrozen());
+    assertTrue(registry.add(new FileArtifact("docs", "docs", new File("docs"))));
+
+    registry.moduleCompleted("docs");
+    assertTrue(registry.isFrozen());
+    try {
+      registry.add(new FileArtifact("docs", "late", new File("late")));
+      fail("artifacts shouldn't be added after the registry is frozen.");
+    }
+    catch (IllegalStateException e) {
+      //fall through...
+    }
+    assertNull(registry.find("late"));
+  }
+
+  @Test
+  public void testAwaitModule() throws Exception {
+    final ArtifactRegistry registry = new ArtifactRegistry();
+    registry.expectModule("java-xml-client", Collections.<String>emptySet());
+    registry.expectModule("docs", new TreeSet<String>(Arrays.asList("java-xml-client")));
+
+    //a module that isn't expected (e.g. disabled) doesn't block.
+    registry.awaitModule("disabled", "docs");
+
+    final CountDownLatch waited = new CountDownLatch(1);
+    Thread waiter = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          registry.awaitModule("java-xml-client", "docs");
+          waited.countDown();
+        }
+        catch (InterruptedException e) {
+          //fall through...
+        }
+      }
+    });
+    waiter.start();
+    assertFalse(waited.await(100, TimeUnit.MILLISECONDS));
+
+    registry.add(new FileArtifact("java-xml-client", "java.client.library", new File("client.jar")));
+    registry.moduleCompleted("java-xml-client");
+    assertTrue(waited.await(5, TimeUnit.SECONDS));
+    assertNotNull(registry.find("java.client.library"));
+  }
+
+  @Test
+  public void testAwaitModuleThatIsNotUpstream() throws Exception {
+    ArtifactRegistry registry = new ArtifactRegistry();
+    registry.expectModule("docs", Collections.<String>emptySet());
+    registry.expectModule("java-xml-client", Collections.singleton("docs"));
+
+    try {
+      registry.awaitModule("java-xml-client", "docs");
+      fail("waiting for a module that isn't upstream should fail instead of blocking.");
+    }
+    catch (IllegalStateException e) {
+      //fall through...
+    }
+
+    //once the module has completed, there's nothing to wait for.
+    registry.moduleCompleted("java-xml-client");
+    registry.awaitModule("java-xml-client", "docs");
+  }
+
+  @Test
+  public void testExpectModulesAgain() throws Exception {
+    ArtifactRegistry registry = new ArtifactRegistry();
+    registry.expectModule("java-xml-client", Collections.<String>emptySet());
+    registry.expectModule("docs", Collections.singleton("java-xml-client"));
+    registry.moduleCompleted("java-xml-client");
+    registry.moduleCompleted("docs");
+    assertTrue(registry.isFrozen());
+
+    //compose the engine again.
+    registry.resetModules();
+    registry.expectModule("java-xml-client", Collections.<String>emptySet());
+    registry.expectModule("docs", Collections.singleton("java-xml-client"));
+    assertFalse(registry.isFrozen());
+    registry.add(new FileArtifact("java-xml-client", "java.client.library", new File("client.jar")));
+
+    final CountDownLatch waited = new CountDownLatch(1);
+    final ArtifactRegistry waiting = registry;
+    Thread waiter = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          waiting.awaitModule("java-xml-client", "docs");
+          waited.countDown();
+        }
+        catch (InterruptedException e) {
+          //fall through...
+        }
+      }
+    });
+    waiter.start();
+    assertFalse("the latches of the previous run shouldn't be reused", waited.await(100, TimeUnit.MILLISECONDS));
+
+    registry.moduleCompleted("java-xml-client");
+    assertTrue(waited.await(5, TimeUnit.SECONDS));
+    assertFalse(registry.isFrozen());
+    registry.moduleCompleted("docs");
+    assertTrue(registry.isFrozen());
+  }
+}
@@ -0,0 +1,133 @@
+/**
+ * Copyright © 2006-2016 Web Cohesion (info@webcohesion.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webcohesion.enunciate.util;
+
+import org.junit.Test;
+
+import java.io.*;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Ryan Heaton
+ */
+public class BuildCacheTest {
+
+  @Test
+  public void testKey() throws Exception {
+    String key = BuildCache.key("model", null, "csharp-xml-client", "module", "src");
+    assertEquals(40, key.length());
+    assertEquals(key, BuildCache.key("model", null, "csharp-xml-client", "module", "src"));
+    assertFalse(key.equals(BuildCache.key("model2", null, "csharp-xml-client", "module", "src")));
+    assertFalse(key.equals(BuildCache.key("model", "license", "csharp-xml-client", "module", "src")));
+    assertFalse(key.equals(BuildCache.key("model", null, "csharp-xml-client", "module", "build")));
+    assertFalse(key.equals(BuildCache.key("model", null, "csharp-xml-client", "module2", "src")));
+    assertFalse("input boundaries should matter", BuildCache.key("ab", "c").equals(BuildCache.key("a", "bc")));
+    assertFalse("null should differ from empty", BuildCache.key((String) null).equals(BuildCache.key("")));
+  }
+
+  @Test
+  public void testStoreAndRestore() throws Exception {
+    BuildCache cache = new BuildCache(createTempDir());
+    File srcDir = createTempDir();
+    write(new File(srcDir, "api.cs"), "namespace Api {}");
+    write(new File(new File(srcDir, "nested"), "types.cs"), "class Type {}");
+
+    assertTrue(cache.store("abcdef", srcDir));
+    assertFalse("an existing entry should be kept", cache.store("abcdef", srcDir));
+
+    File destDir = createTempDir();
+    write(new File(destDir, "stale.cs"), "stale");
+    assertTrue(cache.restore("abcdef", destDir));
+    assertEquals("namespace Api {}", read(new File(destDir, "api.cs")));
+    assertEquals("class Type {}", read(new File(new File(destDir, "nested"), "types.cs")));
+    assertFalse("existing contents should be replaced", new File(destDir, "stale.cs").exists());
+  }
+
+  @Test
+  public void testMiss() throws Exception {
+    BuildCache cache = new BuildCache(createTempDir());
+    File destDir = createTempDir();
+    write(new File(destDir, "api.cs"), "namespace Api {}");
+    assertFalse(cache.restore("abcdef", destDir));
+    assertTrue("a miss should leave the directory alone", new File(destDir, "api.cs").exists());
+
+    assertFalse("empty directories shouldn't be stored", cache.store("abcdef", createTempDir()));
+    assertFalse(cache.restore("abcdef", destDir));
+  }
+
+  @Test
+  public void testCorruptEntry() throws Exception {
+    BuildCache cache = new BuildCache(createTempDir());
+    File entry = cache.getEntryFile("abcdef");
+    entry.getParentFile().mkdirs();
+    write(entry, "this isn't a zip file");
+
+    File destDir = createTempDir();
+    assertFalse(cache.restore("abcdef", destDir));
+    assertFalse("a corrupt entry should be removed", entry.exists());
+    assertEquals(0, destDir.listFiles().length);
+  }
+
+  @Test
+  public void testEntryOutsideOfTargetDirectory() throws Exception {
+    BuildCache cache = new BuildCache(createTempDir());
+    File entry = cache.getEntryFile("abcdef");
+    entry.getParentFile().mkdirs();
+    ZipOutputStream out = new ZipOutputStream(new FileOutputStream(entry));
+    out.putNextEntry(new ZipEntry("api.cs"));
+    out.write("namespace Api {}".getBytes("utf-8"));
+    out.closeEntry();
+    out.putNextEntry(new ZipEntry("../escaped.cs"));
+    out.write("escaped".getBytes("utf-8"));
+    out.closeEntry();
+    out.close();
+
+    File parentDir = createTempDir();
+    File destDir = new File(parentDir, "src");
+    assertFalse(cache.restore("abcdef", destDir));
+    assertFalse(new File(parentDir, "escaped.cs").exists());
+    assertFalse(entry.exists());
+  }
+
+  private static void write(File file, String content) throws IOException {
+    file.getParentFile().mkdirs();
+    Writer writer = new OutputStreamWriter(new FileOutputStream(file), "utf-8");
+    writer.write(content);
+    writer.close();
+  }
+
+  private static String read(File file) throws IOException {
+    Reader reader = new InputStreamReader(new FileInputStream(file), "utf-8");
+    StringWriter writer = new StringWriter();
+    char[] chars = new char[1024];
+    int len;
+    while ((len = reader.read(chars)) > 0) {
+      writer.write(chars, 0, len);
+    }
+    reader.close();
+    return writer.toString();
+  }
+
+  private static File createTempDir() throws IOException {
+    File dir = File.createTempFile("enunciate", "");
+    dir.delete();
+    dir.mkdirs();
+    return dir;
+  }
+}
@@ -0,0 +1,74 @@
+/**
+ * Copyright © 2006-2016 Web Cohesion (info@webcohesion.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webcohesion.enunciate.util;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Ryan Heaton
+ */
+public class IfChangedFileWriterTest {
+
+  private static final Charset UTF8 = Charset.forName("utf-8");
+
+  @Test
+  public void testUnchangedContentKeepsTimestamp() throws Exception {
+    File file = File.createTempFile("enunciate", ".txt");
+    assertTrue(IfChangedFileWriter.write(file, "content", UTF8));
+    assertTrue(file.setLastModified(1000000000000L));
+
+    IfChangedFileWriter writer = new IfChangedFileWriter(file, "utf-8");
+    writer.write("content");
+    writer.close();
+    assertFalse(writer.isWritten());
+    assertEquals(1000000000000L, file.lastModified());
+
+    writer = new IfChangedFileWriter(file, "utf-8");
+    writer.write("changed");
+    writer.close();
+    assertTrue(writer.isWritten());
+    assertTrue(IfChangedFileWriter.hasContent(file, "changed".getBytes(UTF8)));
+  }
+
+  @Test
+  public void testDiscard() throws Exception {
+    File file = File.createTempFile("enunciate", ".txt");
+    assertTrue(IfChangedFileWriter.write(file, "good content", UTF8));
+    assertTrue(file.setLastModified(1000000000000L));
+
+    IfChangedFileWriter writer = new IfChangedFileWriter(file, "utf-8");
+    writer.write("partial");
+    writer.discard();
+    writer.close();
+    assertFalse(writer.isWritten());
+    assertTrue("a discarded writer shouldn't write the file", IfChangedFileWriter.hasContent(file, "good content".getBytes(UTF8)));
+    assertEquals(1000000000000L, file.lastModified());
+
+    try {
+      writer.write("more");
+      fail("a discarded writer should be closed.");
+    }
+    catch (IOException e) {
+      //fall through...
+    }
+  }
+}
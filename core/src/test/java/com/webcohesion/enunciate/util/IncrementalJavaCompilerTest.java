@@ -0,0 +1,187 @@
+/**
+ * Copyright © 2006-2016 Web Cohesion (info@webcohesion.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webcohesion.enunciate.util;
+
+import com.webcohesion.enunciate.EnunciateConsoleLogger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.*;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Ryan Heaton
+ */
+public class IncrementalJavaCompilerTest {
+
+  private static final List<String> OPTIONS = Arrays.asList("-encoding", "UTF-8", "-nowarn");
+
+  private File sourceDir;
+  private File compileDir;
+  private IncrementalJavaCompiler compiler;
+
+  @Before
+  public void setUp() throws Exception {
+    File baseDir = createTempDir();
+    this.sourceDir = new File(baseDir, "src");
+    this.compileDir = new File(baseDir, "classes");
+    this.compileDir.mkdirs();
+    EnunciateConsoleLogger logger = new EnunciateConsoleLogger();
+    logger.setInfoEnabled(false);
+    this.compiler = new IncrementalJavaCompiler(logger, this.sourceDir, this.compileDir, new File(baseDir, "classes.state"));
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    this.compiler.close();
+  }
+
+  @Test
+  public void testUnchangedSourcesAreReused() throws Exception {
+    writeSource("pckg/A.java", "package pckg; public class A { public String a() { return \"a\"; } }");
+    writeSource("pckg/B.java", "package pckg; public class B { public String b() { return new A().a(); } }");
+    assertTrue(compile());
+    assertEquals(2, this.compiler.getCompiledSources());
+
+    long bTimestamp = classFile("pckg/B").lastModified();
+    assertTrue(compile());
+    assertEquals(0, this.compiler.getCompiledSources());
+    assertEquals(2, this.compiler.getReusedSources());
+    assertEquals(bTimestamp, classFile("pckg/B").lastModified());
+  }
+
+  @Test
+  public void testChangedSourceRecompilesDependents() throws Exception {
+    writeSource("pckg/A.java", "package pckg; public class A { public String a() { return \"a\"; } }");
+    writeSource("pckg/B.java", "package pckg; public class B { public String b() { return new A().a(); } }");
+    writeSource("pckg/C.java", "package pckg; public class C { public String c() { return \"c\"; } }");
+    assertTrue(compile());
+
+    writeSource("pckg/A.java", "package pckg; public class A { public String a() { return \"a2\"; } }");
+    assertTrue(compile());
+    assertEquals("A and its dependent B should be recompiled", 2, this.compiler.getCompiledSources());
+    assertEquals(1, this.compiler.getReusedSources());
+    assertEquals("a2", invoke("pckg.B", "b"));
+  }
+
+  @Test
+  public void testRemovedSource() throws Exception {
+    writeSource("pckg/A.java", "package pckg; public class A { public String a() { return \"a\"; } }");
+    writeSource("pckg/B.java", "package pckg; public class B { public String b() { return new A().a(); } }");
+    writeSource("pckg/C.java", "package pckg; public class C { public String c() { return \"c\"; } }");
+    assertTrue(compile());
+
+    assertTrue(new File(this.sourceDir, "pckg/C.java").delete());
+    assertTrue(compile());
+    assertFalse("the classes of a removed source should be deleted", classFile("pckg/C").exists());
+    assertEquals(0, this.compiler.getCompiledSources());
+    assertEquals(2, this.compiler.getReusedSources());
+
+    assertTrue(new File(this.sourceDir, "pckg/A.java").delete());
+    assertFalse("a dependent of a removed source should be recompiled (and fail)", compile());
+  }
+
+  @Test
+  public void testChangedConstantRecompilesEverything() throws Exception {
+    writeSource("pckg/Constants.java", "package pckg; public class Constants { public static final String VALUE = \"one\"; }");
+    writeSource("pckg/B.java", "package pckg; public class B { public String b() { return Constants.VALUE; } }");
+    writeSource("pckg/C.java", "package pckg; public class C { public String c() { return \"c\"; } }");
+    assertTrue(compile());
+    assertEquals("one", invoke("pckg.B", "b"));
+
+    //a change that doesn't change the constants shouldn't recompile everything.
+    writeSource("pckg/Constants.java", "package pckg; public class Constants { public static final String VALUE = \"one\"; public String other() { return null; } }");
+    assertTrue(compile());
+    assertTrue(this.compiler.getReusedSources() > 0);
+
+    //older versions of javac don't leave any reference to the class of an inlined constant, so a changed constant
+    //has to recompile everything (including the unrelated C).
+    writeSource("pckg/Constants.java", "package pckg; public class Constants { public static final String VALUE = \"two\"; }");
+    assertTrue(compile());
+    assertEquals(3, this.compiler.getCompiledSources());
+    assertEquals(0, this.compiler.getReusedSources());
+    assertEquals("two", invoke("pckg.B", "b"));
+  }
+
+  @Test
+  public void testReadClassFile() throws Exception {
+    writeSource("pckg/Constants.java", "package pckg; public class Constants { public static final int NUMBER = 42; public static final String VALUE = \"one\"; public static String notConstant = \"x\"; }");
+    writeSource("pckg/B.java", "package pckg; public class B { public java.util.List<Constants> list() { return null; } }");
+    assertTrue(compile());
+
+    IncrementalJavaCompiler.ClassFileInfo constants = IncrementalJavaCompiler.readClassFile(classFile("pckg/Constants"));
+    assertEquals(2, constants.constants.size());
+    assertTrue(constants.constants.contains("NUMBER:I=42"));
+    assertTrue(constants.constants.contains("VALUE:Ljava/lang/String;=\"one\""));
+
+    IncrementalJavaCompiler.ClassFileInfo b = IncrementalJavaCompiler.readClassFile(classFile("pckg/B"));
+    assertTrue(b.references.contains("pckg/Constants"));
+    assertTrue(b.references.contains("java/util/List"));
+    assertTrue(b.constants.isEmpty());
+  }
+
+  private boolean compile() throws IOException {
+    List<File> sources = new ArrayList<File>();
+    listSources(this.sourceDir, sources);
+    return this.compiler.compile(sources, null, OPTIONS);
+  }
+
+  private static void listSources(File dir, List<File> sources) {
+    File[] files = dir.listFiles();
+    if (files != null) {
+      for (File file : files) {
+        if (file.isDirectory()) {
+          listSources(file, sources);
+        }
+        else if (file.getName().endsWith(".java")) {
+          sources.add(file);
+        }
+      }
+    }
+  }
+
+  private void writeSource(String path, String source) throws IOException {
+    File file = new File(this.sourceDir, path);
+    file.getParentFile().mkdirs();
+    Writer writer = new OutputStreamWriter(new FileOutputStream(file), "utf-8");
+    writer.write(source);
+    writer.close();
+  }
+
+  private File classFile(String name) {
+    return new File(this.compileDir, name + ".class");
+  }
+
+  private Object invoke(String className, String method) throws Exception {
+    URLClassLoader loader = new URLClassLoader(new URL[]{this.compileDir.toURI().toURL()}, null);
+    Class<?> clazz = loader.loadClass(className);
+    return clazz.getMethod(method).invoke(clazz.newInstance());
+  }
+
+  private static File createTempDir() throws IOException {
+    File dir = File.createTempFile("enunciate", "");
+    dir.delete();
+    dir.mkdirs();
+    return dir;
+  }
+}
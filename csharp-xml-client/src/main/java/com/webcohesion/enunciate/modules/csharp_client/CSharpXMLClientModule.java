@@ -338,7 +338,7 @@ public class CSharpXMLClientModule extends BasicGeneratingModule implements ApiF
 
     model.put("isFacetExcluded", new IsFacetExcludedMethod(facetFilter));
 
-    if (!isUpToDateWithSources(srcDir)) {
+    if (!isUpToDateWithSources(srcDir) && !restoreFromBuildCache(srcDir)) {
       debug("Generating the C# client classes...");
       URL apiTemplate = isSingleFilePerClass() ? getTemplateURL("api-multiple-files.fmt") : getTemplateURL("api.fmt");
       try {
@@ -350,6 +350,7 @@ public class CSharpXMLClientModule extends BasicGeneratingModule implements ApiF
       catch (TemplateException e) {
         throw new EnunciateException(e);
       }
+      storeInBuildCache(srcDir);
     }
     else {
       info("Skipping C# code generation because everything appears up-to-date.");
@@ -365,7 +366,7 @@ public class CSharpXMLClientModule extends BasicGeneratingModule implements ApiF
     compileDir.mkdirs();
 
     if (!isDisableCompile()) {
-      if (!isUpToDateWithSources(compileDir)) {
+      if (!isUpToDateWithSources(compileDir) && !restoreFromBuildCache(compileDir)) {
         String compileExectuable = getCompileExecutable();
         if (compileExectuable == null) {
           String osName = System.getProperty("os.name");
@@ -469,18 +470,23 @@ public class CSharpXMLClientModule extends BasicGeneratingModule implements ApiF
         catch (IOException e) {
           throw new EnunciateException(e);
         }
+        storeInBuildCache(compileDir);
+      }
+      else {
+        info("Skipping C# compile because everything appears up-to-date.");
+      }
 
+      File dll = new File(compileDir, getDLLFileName());
+      if (dll.exists()) {
         FileArtifact assembly = new FileArtifact(getName(), "csharp.assembly", dll);
         assembly.setPublic(false);
         enunciate.addArtifact(assembly);
-        if (docXml.exists()) {
-          FileArtifact docs = new FileArtifact(getName(), "csharp.docs.xml", docXml);
-          docs.setPublic(false);
-          enunciate.addArtifact(docs);
-        }
       }
-      else {
-        info("Skipping C# compile because everything appears up-to-date.");
+      File docXml = new File(compileDir, getDocXmlFileName());
+      if (docXml.exists()) {
+        FileArtifact docs = new FileArtifact(getName(), "csharp.docs.xml", docXml);
+        docs.setPublic(false);
+        enunciate.addArtifact(docs);
       }
     }
     else {
@@ -493,40 +499,44 @@ public class CSharpXMLClientModule extends BasicGeneratingModule implements ApiF
     File packageDir = getPackageDir();
     packageDir.mkdirs();
 
-    if (!isUpToDateWithSources(packageDir)) {
+    File bundle = new File(packageDir, getBundleFileName());
+    boolean anyFiles;
+    if (!isUpToDateWithSources(packageDir) && !restoreFromBuildCache(packageDir)) {
       try {
         //we want to zip up the source file, too, so we'll just copy it to the compile dir.
         enunciate.copyDir(srcDir, compileDir);
-
-        File bundle = new File(packageDir, getBundleFileName());
-        boolean anyFiles = enunciate.zip(bundle, compileDir);
-
-        if (anyFiles) {
-          ClientLibraryArtifact artifactBundle = new ClientLibraryArtifact(getName(), "csharp.client.library", "C# Client Library");
-          artifactBundle.setPlatform(".NET 2.0");
-
-          StringBuilder builder = new StringBuilder("C# source code");
-          boolean docsExist = new File(compileDir, getDocXmlFileName()).exists();
-          boolean dllExists = new File(compileDir, getDLLFileName()).exists();
-          if (docsExist && dllExists) {
-            builder.append(", the assembly, and the XML docs");
-          }
-          else if (dllExists) {
-            builder.append("and the assembly");
-          }
-
-          artifactBundle.setDescription((String) context.getProperty(LIRBARY_DESCRIPTION_PROPERTY));
-          FileArtifact binariesJar = new FileArtifact(getName(), "dotnet.client.bundle", bundle);
-          binariesJar.setArtifactType(ArtifactType.binaries);
-          binariesJar.setDescription(String.format("The %s for the C# client library.", builder.toString()));
-          binariesJar.setPublic(false);
-          artifactBundle.addArtifact(binariesJar);
-          enunciate.addArtifact(artifactBundle);
-        }
+        anyFiles = enunciate.zip(bundle, compileDir);
       }
       catch (IOException e) {
         throw new EnunciateException(e);
       }
+      storeInBuildCache(packageDir);
+    }
+    else {
+      anyFiles = bundle.exists();
+    }
+
+    if (anyFiles) {
+      ClientLibraryArtifact artifactBundle = new ClientLibraryArtifact(getName(), "csharp.client.library", "C# Client Library");
+      artifactBundle.setPlatform(".NET 2.0");
+
+      StringBuilder builder = new StringBuilder("C# source code");
+      boolean docsExist = new File(compileDir, getDocXmlFileName()).exists();
+      boolean dllExists = new File(compileDir, getDLLFileName()).exists();
+      if (docsExist && dllExists) {
+        builder.append(", the assembly, and the XML docs");
+      }
+      else if (dllExists) {
+        builder.append("and the assembly");
+      }
+
+      artifactBundle.setDescription((String) context.getProperty(LIRBARY_DESCRIPTION_PROPERTY));
+      FileArtifact binariesJar = new FileArtifact(getName(), "dotnet.client.bundle", bundle);
+      binariesJar.setArtifactType(ArtifactType.binaries);
+      binariesJar.setDescription(String.format("The %s for the C# client library.", builder.toString()));
+      binariesJar.setPublic(false);
+      artifactBundle.addArtifact(binariesJar);
+      enunciate.addArtifact(artifactBundle);
     }
   }
 
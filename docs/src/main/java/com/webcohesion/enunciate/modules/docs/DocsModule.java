@@ -15,15 +15,21 @@
  */
 package com.webcohesion.enunciate.modules.docs;
 
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.webcohesion.enunciate.EnunciateContext;
 import com.webcohesion.enunciate.EnunciateException;
 import com.webcohesion.enunciate.api.ApiRegistry;
 import com.webcohesion.enunciate.api.Download;
 import com.webcohesion.enunciate.api.DownloadFile;
 import com.webcohesion.enunciate.api.InterfaceDescriptionFile;
+import com.webcohesion.enunciate.api.datatype.DataType;
 import com.webcohesion.enunciate.api.datatype.Namespace;
 import com.webcohesion.enunciate.api.datatype.Syntax;
 import com.webcohesion.enunciate.api.resources.ResourceApi;
+import com.webcohesion.enunciate.api.resources.ResourceGroup;
+import com.webcohesion.enunciate.api.services.Service;
 import com.webcohesion.enunciate.api.services.ServiceApi;
 import com.webcohesion.enunciate.api.services.ServiceGroup;
 import com.webcohesion.enunciate.artifacts.Artifact;
@@ -225,6 +231,25 @@ public class DocsModule extends BasicGeneratingModule implements ApiRegistryAwar
     return this.config.getString("[@faviconUri]", null);
   }
 
+  /**
+   * Whether to render the data type, service and resource group pages as independent shards, each with its own
+   * (small) template model. Custom templates must honor the 'shard' model variable when this is enabled.
+   *
+   * @return Whether to render the documentation pages as independent shards.
+   */
+  public boolean isSharded() {
+    return this.config.getBoolean("[@sharded]", false);
+  }
+
+  /**
+   * The name of the search index file that is generated alongside the sharded pages.
+   *
+   * @return The name of the search index file.
+   */
+  public String getSearchIndexName() {
+    return this.config.getString("[@searchIndexName]", "search-index.json");
+  }
+
   @Override
   public void setApiRegistry(ApiRegistry registry) {
     this.apiRegistry = registry;
@@ -321,7 +346,17 @@ public class DocsModule extends BasicGeneratingModule implements ApiRegistryAwar
 
         model.put("disableResourceLinks", isDisableResourceLinks());
 
-        processTemplate(getDocsTemplateURL(), model);
+        boolean sharded = isSharded();
+        model.put("shardedPages", sharded);
+
+        Template template = loadTemplate(getDocsTemplateURL());
+        processTemplate(template, model);
+
+        if (sharded) {
+          List<DocsPageShard> shards = gatherPageShards(resourceApis);
+          writeSearchIndex(shards, new File(docsDir, getSearchIndexName()));
+          processPageShards(template, model, shards, docsDir);
+        }
       }
       else {
         info("Skipping documentation source generation as everything appears up-to-date...");
@@ -348,7 +383,115 @@ public class DocsModule extends BasicGeneratingModule implements ApiRegistryAwar
    * @param model       The root model.
    */
   public void processTemplate(URL templateURL, Object model) throws IOException, TemplateException {
-    debug("Processing template %s.", templateURL);
+    processTemplate(loadTemplate(templateURL), model);
+  }
+
+  /**
+   * Processes the specified template with the given model.
+   *
+   * @param template The template.
+   * @param model    The root model.
+   */
+  protected void processTemplate(Template template, Object model) throws IOException, TemplateException {
+    debug("Processing template %s.", template.getName());
+    StringWriter unhandledOutput = new StringWriter();
+    template.process(model, unhandledOutput);
+    debug("Freemarker processing output:\n%s", unhandledOutput);
+  }
+
+  /**
+   * Gathers the pages that can be rendered independently of the rest of the site.
+   *
+   * @param resourceApis The resource APIs.
+   * @return The page shards.
+   */
+  protected List<DocsPageShard> gatherPageShards(List<ResourceApi> resourceApis) {
+    List<DocsPageShard> shards = new ArrayList<DocsPageShard>();
+    for (ResourceApi resourceApi : resourceApis) {
+      for (ResourceGroup resourceGroup : resourceApi.getResourceGroups()) {
+        shards.add(new DocsPageShard(DocsPageShard.RESOURCE_GROUP, resourceGroup, resourceGroup.getSlug(), resourceGroup.getLabel(), resourceGroup.getDescription()));
+      }
+    }
+
+    for (ServiceApi serviceApi : this.apiRegistry.getServiceApis()) {
+      for (ServiceGroup serviceGroup : serviceApi.getServiceGroups()) {
+        for (Service service : serviceGroup.getServices()) {
+          shards.add(new DocsPageShard(DocsPageShard.SERVICE, service, service.getSlug(), service.getLabel(), service.getDescription()));
+        }
+      }
+    }
+
+    for (Syntax syntax : this.apiRegistry.getSyntaxes()) {
+      shards.add(new DocsPageShard(DocsPageShard.SYNTAX, syntax, syntax.getSlug(), syntax.getLabel(), null));
+      for (Namespace namespace : syntax.getNamespaces()) {
+        for (DataType dataType : namespace.getTypes()) {
+          shards.add(new DocsPageShard(DocsPageShard.DATA_TYPE, dataType, dataType.getSlug(), dataType.getLabel(), dataType.getDescription()));
+        }
+      }
+    }
+
+    return shards;
+  }
+
+  /**
+   * Renders each page shard as an independent unit of work. Each shard is rendered with a model layered over the index
+   * model, with the 'shard' variable set to the page being rendered and its own 'file' directive. The shards are
+   * rendered one at a time because the model reads the javac model lazily, and javac isn't thread-safe.
+   *
+   * @param template   The template.
+   * @param indexModel The index model.
+   * @param shards     The shards to render.
+   * @param docsDir    The directory the pages are written to.
+   */
+  protected void processPageShards(Template template, Map<String, Object> indexModel, List<DocsPageShard> shards, File docsDir) throws IOException, TemplateException {
+    debug("Rendering %s documentation pages.", shards.size());
+    long start = System.currentTimeMillis();
+    for (DocsPageShard shard : shards) {
+      processTemplate(template, createShardModel(template, indexModel, shard, docsDir));
+    }
+    debug("Rendered %s documentation pages in %s ms.", shards.size(), System.currentTimeMillis() - start);
+  }
+
+  private DocsShardModel createShardModel(Template template, Map<String, Object> indexModel, DocsPageShard shard, File docsDir) {
+    return new DocsShardModel(indexModel, template.getObjectWrapper(), shard, new FileDirective(docsDir, this.enunciate.getLogger()));
+  }
+
+  /**
+   * Writes a JSON search index of the documentation pages.
+   *
+   * @param shards The page shards.
+   * @param file   The file to write to.
+   */
+  protected void writeSearchIndex(List<DocsPageShard> shards, File file) throws IOException {
+    debug("Writing search index to %s.", file);
+    JsonGenerator generator = new JsonFactory().createGenerator(file, JsonEncoding.UTF8);
+    try {
+      generator.writeStartArray();
+      for (DocsPageShard shard : shards) {
+        generator.writeStartObject();
+        generator.writeStringField("kind", shard.getKind());
+        generator.writeStringField("label", shard.getLabel());
+        generator.writeStringField("href", shard.getHref());
+        if (shard.getDescription() != null) {
+          generator.writeStringField("description", shard.getDescription().replaceAll("<[^>]*>", "").trim());
+        }
+        generator.writeEndObject();
+      }
+      generator.writeEndArray();
+    }
+    finally {
+      generator.close();
+    }
+  }
+
+  /**
+   * Loads the template at the specified URL.
+   *
+   * @param templateURL The template URL.
+   * @return The template.
+   */
+  protected Template loadTemplate(URL templateURL) throws IOException {
+    debug("Loading template %s.", templateURL);
     Configuration configuration = new Configuration(Configuration.VERSION_2_3_22);
 
     configuration.setTemplateLoader(new URLTemplateLoader() {
@@ -371,10 +514,7 @@ public class DocsModule extends BasicGeneratingModule implements ApiRegistryAwar
     configuration.setLocalizedLookup(false);
     configuration.setDefaultEncoding("UTF-8");
     configuration.setURLEscapingCharset("UTF-8");
-    Template template = configuration.getTemplate(templateURL.toString());
-    StringWriter unhandledOutput = new StringWriter();
-    template.process(model, unhandledOutput);
-    debug("Freemarker processing output:\n%s", unhandledOutput);
+    return configuration.getTemplate(templateURL.toString());
   }
 
   protected String buildBase(File outputDir) throws IOException {
@@ -492,6 +632,19 @@ public class DocsModule extends BasicGeneratingModule implements ApiRegistryAwar
       }
     }
 
+    //make sure the modules the documentation depends on are done producing their artifacts.
+    for (EnunciateModule module : this.enunciate.getModules()) {
+      if (module instanceof ApiFeatureProviderModule) {
+        try {
+          this.enunciate.getArtifactRegistry().awaitModule(module.getName(), getName());
+        }
+        catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new EnunciateException(e);
+        }
+      }
+    }
+
     for (Artifact artifact : this.enunciate.getArtifacts()) {
       if (artifact.isPublic() || explicitArtifacts.contains(artifact.getId())) {
         artifacts.add(artifact);
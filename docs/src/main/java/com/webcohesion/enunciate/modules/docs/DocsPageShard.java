@@ -0,0 +1,97 @@
+/**
+ * Copyright © 2006-2016 Web Cohesion (info@webcohesion.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webcohesion.enunciate.modules.docs;
+
+/**
+ * A single documentation page that can be rendered independently of the rest of the site.
+ *
+ * @author Ryan Heaton
+ */
+public class DocsPageShard {
+
+  public static final String RESOURCE_GROUP = "resourceGroup";
+  public static final String SERVICE = "service";
+  public static final String SYNTAX = "syntax";
+  public static final String DATA_TYPE = "dataType";
+
+  private final String kind;
+  private final Object target;
+  private final String slug;
+  private final String label;
+  private final String description;
+
+  public DocsPageShard(String kind, Object target, String slug, String label, String description) {
+    this.kind = kind;
+    this.target = target;
+    this.slug = slug;
+    this.label = label;
+    this.description = description;
+  }
+
+  /**
+   * The kind of page (e.g. "resourceGroup", "service", "syntax", "dataType").
+   *
+   * @return The kind of page.
+   */
+  public String getKind() {
+    return kind;
+  }
+
+  /**
+   * The API element being documented by the page.
+   *
+   * @return The API element being documented by the page.
+   */
+  public Object getTarget() {
+    return target;
+  }
+
+  /**
+   * The slug of the page.
+   *
+   * @return The slug of the page.
+   */
+  public String getSlug() {
+    return slug;
+  }
+
+  /**
+   * The href of the page, relative to the docs directory.
+   *
+   * @return The href of the page.
+   */
+  public String getHref() {
+    return slug + ".html";
+  }
+
+  /**
+   * The label of the page.
+   *
+   * @return The label of the page.
+   */
+  public String getLabel() {
+    return label;
+  }
+
+  /**
+   * The description of the page, if any.
+   *
+   * @return The description of the page.
+   */
+  public String getDescription() {
+    return description;
+  }
+}
@@ -0,0 +1,62 @@
+/**
+ * Copyright © 2006-2016 Web Cohesion (info@webcohesion.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webcohesion.enunciate.modules.docs;
+
+import freemarker.template.ObjectWrapper;
+import freemarker.template.TemplateHashModel;
+import freemarker.template.TemplateModel;
+import freemarker.template.TemplateModelException;
+
+import java.util.Map;
+
+/**
+ * The model for rendering a page shard: the 'shard' and 'file' variables of the shard, layered over the (shared,
+ * read-only) index model so the index model doesn't need to be copied for each shard.
+ *
+ * @author Ryan Heaton
+ */
+public class DocsShardModel implements TemplateHashModel {
+
+  private final Map<String, Object> indexModel;
+  private final ObjectWrapper wrapper;
+  private final DocsPageShard shard;
+  private final TemplateModel file;
+
+  public DocsShardModel(Map<String, Object> indexModel, ObjectWrapper wrapper, DocsPageShard shard, TemplateModel file) {
+    this.indexModel = indexModel;
+    this.wrapper = wrapper;
+    this.shard = shard;
+    this.file = file;
+  }
+
+  @Override
+  public TemplateModel get(String key) throws TemplateModelException {
+    if ("shard".equals(key)) {
+      return this.wrapper.wrap(this.shard);
+    }
+    else if ("file".equals(key)) {
+      return this.file;
+    }
+
+    Object value = this.indexModel.get(key);
+    return value == null ? null : this.wrapper.wrap(value);
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return false;
+  }
+}
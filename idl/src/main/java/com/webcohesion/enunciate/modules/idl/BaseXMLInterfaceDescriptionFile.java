@@ -15,9 +15,11 @@
  */
 package com.webcohesion.enunciate.modules.idl;
 
+import com.webcohesion.enunciate.EnunciateLogger;
 import com.webcohesion.enunciate.api.InterfaceDescriptionFile;
 import com.webcohesion.enunciate.facets.FacetFilter;
 import com.webcohesion.enunciate.modules.jaxb.util.PrefixMethod;
+import com.webcohesion.enunciate.util.IfChangedFileWriter;
 import com.webcohesion.enunciate.util.freemarker.IsFacetExcludedMethod;
 import freemarker.cache.URLTemplateLoader;
 import freemarker.core.Environment;
@@ -40,7 +42,10 @@ public abstract class BaseXMLInterfaceDescriptionFile implements InterfaceDescri
   protected final FacetFilter facetFilter;
   protected final Map<String, String> namespacePrefixes;
   protected final String filename;
-  private String contents;
+  private volatile byte[] contents;
+  private volatile long renderTime = -1;
+  private volatile boolean written = false;
+  private EnunciateLogger logger;
 
   public BaseXMLInterfaceDescriptionFile(String filename, Map<String, String> namespacePrefixes, FacetFilter facetFilter) {
     this.namespacePrefixes = namespacePrefixes;
@@ -59,22 +64,68 @@ public abstract class BaseXMLInterfaceDescriptionFile implements InterfaceDescri
 
   @Override
   public void writeTo(File directory) throws IOException {
-    FileWriter writer = new FileWriter(new File(directory, this.filename));
-    writeTo(writer);
-    writer.flush();
-    writer.close();
+    //only rewrite the file if its content changed, so unchanged files keep their timestamps.
+    this.written = IfChangedFileWriter.write(new File(directory, this.filename), render());
   }
 
-  protected void writeTo(Writer writer) throws IOException {
-    if (this.contents != null) {
-      writer.write(this.contents);
-    }
-    else {
+  /**
+   * Whether the file was (re)written the last time it was written to a directory (false if its content was unchanged).
+   *
+   * @return Whether the file was (re)written.
+   */
+  public boolean isWritten() {
+    return written;
+  }
+
+  /**
+   * Render this file (if it hasn't been rendered yet). The file is rendered once, into a UTF-8 buffer, and every
+   * write copies the buffer.
+   *
+   * @return The rendered (UTF-8) content.
+   */
+  public synchronized byte[] render() throws IOException {
+    if (this.contents == null) {
+      long start = System.currentTimeMillis();
       Map<String, Object> model = createModel();
       URL template = getTemplateURL();
-      String idl = processTemplate(template, model);
-      writer.write(idl);
+      processTemplate(template, model);
+      this.renderTime = System.currentTimeMillis() - start;
+      if (this.logger != null) {
+        this.logger.debug("Rendered %s in %s ms.", this.filename, this.renderTime);
+      }
     }
+    return this.contents;
+  }
+
+  /**
+   * The time it took to render this file, in milliseconds, or -1 if it hasn't been rendered.
+   *
+   * @return The time it took to render this file.
+   */
+  public long getRenderTime() {
+    return renderTime;
+  }
+
+  /**
+   * The logger to log the render time to, if any.
+   *
+   * @param logger The logger.
+   */
+  public void setLogger(EnunciateLogger logger) {
+    this.logger = logger;
+  }
+
+  /**
+   * The filename.
+   *
+   * @return The filename.
+   */
+  public String getFilename() {
+    return filename;
+  }
+
+  protected void writeTo(Writer writer) throws IOException {
+    writer.write(new String(render(), "utf-8"));
   }
 
   protected Map<String, Object> createModel() {
@@ -125,7 +176,7 @@ public abstract class BaseXMLInterfaceDescriptionFile implements InterfaceDescri
     }
 
     String idl = output.toString();
-    this.contents = idl;
+    this.contents = idl.getBytes("utf-8");
     return idl;
   }
 
@@ -31,6 +31,7 @@ import com.webcohesion.enunciate.util.StaticInterfaceDescriptionFile;
 import org.apache.commons.configuration.HierarchicalConfiguration;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.*;
 
 /**
@@ -196,9 +197,69 @@ public class IDLModule extends BasicGeneratingModule implements ApiFeatureProvid
       }
     }
 
+    JaxrsWadlFile wadlFile = null;
     if (this.jaxrsModule != null && this.jaxbModule != null && !isDisableWadl()) {
-      this.jaxrsModule.getJaxrsContext().setWadlFile(new JaxrsWadlFile(this.jaxrsModule.getJaxrsContext(), new ArrayList<SchemaInfo>(ns2schema.values()), getWadlStylesheetUri(), baseUri, ns2prefix, facetFilter));
+      wadlFile = new JaxrsWadlFile(this.jaxrsModule.getJaxrsContext(), new ArrayList<SchemaInfo>(ns2schema.values()), getWadlStylesheetUri(), baseUri, ns2prefix, facetFilter);
+      this.jaxrsModule.getJaxrsContext().setWadlFile(wadlFile);
     }
+
+    List<BaseXMLInterfaceDescriptionFile> schemaFiles = new ArrayList<BaseXMLInterfaceDescriptionFile>();
+    for (SchemaInfo schemaInfo : ns2schema.values()) {
+      if (schemaInfo.getSchemaFile() instanceof BaseXMLInterfaceDescriptionFile) {
+        schemaFiles.add((BaseXMLInterfaceDescriptionFile) schemaInfo.getSchemaFile());
+      }
+    }
+
+    List<BaseXMLInterfaceDescriptionFile> serviceFiles = new ArrayList<BaseXMLInterfaceDescriptionFile>();
+    for (WsdlInfo wsdlInfo : ns2wsdl.values()) {
+      if (wsdlInfo.getWsdlFile() instanceof BaseXMLInterfaceDescriptionFile) {
+        serviceFiles.add((BaseXMLInterfaceDescriptionFile) wsdlInfo.getWsdlFile());
+      }
+    }
+    if (wadlFile != null) {
+      serviceFiles.add(wadlFile);
+    }
+
+    //log the render time of each file, whether it's rendered up front or the first time it's written.
+    for (BaseXMLInterfaceDescriptionFile file : schemaFiles) {
+      file.setLogger(this.enunciate.getLogger());
+    }
+    for (BaseXMLInterfaceDescriptionFile file : serviceFiles) {
+      file.setLogger(this.enunciate.getLogger());
+    }
+
+    if (isRenderUpFront()) {
+      //the wsdls and the wadl refer to the schema files, so the schemas are rendered first.
+      render(schemaFiles);
+      render(serviceFiles);
+    }
+  }
+
+  /**
+   * Render the specified files up front, one at a time. The files read the javac model as they render, and javac isn't
+   * thread-safe, so they're not rendered concurrently.
+   *
+   * @param files The files to render.
+   */
+  protected void render(List<BaseXMLInterfaceDescriptionFile> files) {
+    for (BaseXMLInterfaceDescriptionFile file : files) {
+      try {
+        file.render();
+      }
+      catch (IOException e) {
+        throw new EnunciateException(e);
+      }
+    }
+  }
+
+  /**
+   * Whether to render the schemas, wsdls and wadl up front. Defaults to false, i.e. each file is rendered the first
+   * time it's written. The schemas are rendered first, then the wsdls and the wadl (which refer to the schemas).
+   *
+   * @return Whether to render the IDL files up front.
+   */
+  public boolean isRenderUpFront() {
+    return this.config.getBoolean("[@renderUpFront]", false);
   }
 
   /**
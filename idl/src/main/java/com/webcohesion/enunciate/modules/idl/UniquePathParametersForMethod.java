@@ -18,6 +18,7 @@ package com.webcohesion.enunciate.modules.idl;
 import com.webcohesion.enunciate.api.resources.Method;
 import com.webcohesion.enunciate.api.resources.Parameter;
 import com.webcohesion.enunciate.api.resources.Resource;
+import freemarker.ext.beans.BeansWrapper;
 import freemarker.ext.beans.BeansWrapperBuilder;
 import freemarker.template.Configuration;
 import freemarker.template.TemplateMethodModelEx;
@@ -35,13 +36,15 @@ import java.util.Map;
  */
 public class UniquePathParametersForMethod implements TemplateMethodModelEx {
 
+  private static final BeansWrapper WRAPPER = new BeansWrapperBuilder(Configuration.DEFAULT_INCOMPATIBLE_IMPROVEMENTS).build();
+
   public Object exec(List list) throws TemplateModelException {
     if (list.size() < 1) {
       throw new TemplateModelException("The uniqueMediaTypesFor method must have a parameter.");
     }
 
     TemplateModel from = (TemplateModel) list.get(0);
-    Object unwrapped = new BeansWrapperBuilder(Configuration.DEFAULT_INCOMPATIBLE_IMPROVEMENTS).build().unwrap(from);
+    Object unwrapped = WRAPPER.unwrap(from);
     Map<String, Parameter> uniquePathParams = new HashMap<String, Parameter>();
     if (unwrapped instanceof Resource) {
       Resource entity = (Resource) unwrapped;
@@ -47,6 +47,7 @@ import com.webcohesion.enunciate.modules.jackson.model.util.JacksonUtil;
 import com.webcohesion.enunciate.modules.jackson.model.util.MapType;
 import com.webcohesion.enunciate.util.IgnoreUtils;
 import com.webcohesion.enunciate.util.OneTimeLogMessage;
+import com.webcohesion.enunciate.util.ReferenceWorklist;
 
 import javax.activation.DataHandler;
 import javax.lang.model.element.Element;
@@ -72,12 +73,20 @@ public class EnunciateJacksonContext extends EnunciateModuleContext implements S
 
   private final Map<String, JsonType> knownTypes;
   private final Map<String, TypeDefinition> typeDefinitions;
+  private final ReferenceWorklist<TypeDefinition> referenceWorklist = new ReferenceWorklist<TypeDefinition>();
+  private final ReferenceWorklist.ReferenceVisitor<TypeDefinition> typeDefinitionReferenceVisitor = new ReferenceWorklist.ReferenceVisitor<TypeDefinition>() {
+    @Override
+    public void visitReferences(TypeDefinition typeDef, LinkedList<Element> stack) {
+      addReferencedTypeDefinitions(typeDef, stack);
+    }
+  };
   private final boolean honorJaxb;
   private final KnownJsonType dateType;
   private final Map<String, TypeDefinition> typeDefinitionsBySlug;
   private final boolean collapseTypeHierarchy;
   private final Map<String, String> mixins;
   private final boolean disableExamples;
+  private final JacksonNamespace namespace = new JacksonNamespace();
 
   public EnunciateJacksonContext(EnunciateContext context, boolean honorJaxb, KnownJsonType dateType, boolean collapseTypeHierarchy, Map<String, String> mixins, boolean disableExamples) {
     super(context);
@@ -183,7 +192,7 @@ public class EnunciateJacksonContext extends EnunciateModuleContext implements S
   }
 
   public Namespace getNamespace() {
-    return new JacksonNamespace();
+    return this.namespace;
   }
 
   public JsonType getKnownType(Element declaration) {
@@ -392,29 +401,41 @@ public class EnunciateJacksonContext extends EnunciateModuleContext implements S
       }
 
       typeDef.getReferencedFrom().addAll(stack);
-      try {
-        stack.push(typeDef);
 
-        addSeeAlsoTypeDefinitions(typeDef, stack);
+      //walk the references iteratively (instead of recursively) to avoid overflowing the stack on deep models.
+      this.referenceWorklist.enqueue(typeDef.getQualifiedName().toString(), typeDef, stack);
+      this.referenceWorklist.drain(this.typeDefinitionReferenceVisitor);
+    }
+  }
 
-        for (Member member : typeDef.getMembers()) {
-          addReferencedTypeDefinitions(member, stack);
-        }
+  /**
+   * Add the type definitions referenced by the specified type definition.
+   *
+   * @param typeDef The type definition.
+   * @param stack The context stack.
+   */
+  protected void addReferencedTypeDefinitions(TypeDefinition typeDef, LinkedList<Element> stack) {
+    stack.push(typeDef);
+    try {
+      addSeeAlsoTypeDefinitions(typeDef, stack);
 
-        Value value = typeDef.getValue();
-        if (value != null) {
-          addReferencedTypeDefinitions(value, stack);
-        }
+      for (Member member : typeDef.getMembers()) {
+        addReferencedTypeDefinitions(member, stack);
+      }
 
-        TypeMirror superclass = typeDef.getSuperclass();
-        if (!typeDef.isBaseObject() && superclass != null && superclass.getKind() != TypeKind.NONE && !isCollapseTypeHierarchy()) {
-          addReferencedTypeDefinitions(superclass, stack);
-        }
+      Value value = typeDef.getValue();
+      if (value != null) {
+        addReferencedTypeDefinitions(value, stack);
       }
-      finally {
-        stack.pop();
+
+      TypeMirror superclass = typeDef.getSuperclass();
+      if (!typeDef.isBaseObject() && superclass != null && superclass.getKind() != TypeKind.NONE && !isCollapseTypeHierarchy()) {
+        addReferencedTypeDefinitions(superclass, stack);
       }
     }
+    finally {
+      stack.pop();
+    }
   }
 
   protected void addReferencedTypeDefinitions(Accessor accessor, LinkedList<Element> stack) {
@@ -645,12 +666,11 @@ public class EnunciateJacksonContext extends EnunciateModuleContext implements S
           return null;
         }
 
-        if (context.recursionStack.contains(declaration)) {
+        if (!context.recursionSet.add(qualifiedName)) {
           //we're already visiting this class...
           return null;
         }
 
-        context.recursionStack.push(declaration);
         try {
           if (!isKnownTypeDefinition(declaration) && !isIgnored(declaration) && declaration.getKind() == ElementKind.CLASS && !((DecoratedDeclaredType) declaredType).isCollection() && !((DecoratedDeclaredType) declaredType).isInstanceOf(JAXBElement.class)) {
             add(createTypeDefinition(declaration), context.referenceStack);
@@ -664,7 +684,7 @@ public class EnunciateJacksonContext extends EnunciateModuleContext implements S
           }
         }
         finally {
-          context.recursionStack.pop();
+          context.recursionSet.remove(qualifiedName);
         }
       }
       else {
@@ -707,15 +727,18 @@ public class EnunciateJacksonContext extends EnunciateModuleContext implements S
 
   private static class ReferenceContext {
     LinkedList<Element> referenceStack;
-    LinkedList<Element> recursionStack;
+    Set<String> recursionSet;
 
     public ReferenceContext(LinkedList<Element> referenceStack) {
       this.referenceStack = referenceStack;
-      recursionStack = new LinkedList<Element>();
+      recursionSet = new HashSet<String>();
     }
   }
 
   private class JacksonNamespace implements Namespace {
+
+    private volatile List<DataType> frozenTypes;
+
     @Override
     public String getUri() {
       return null; //json has no namespace uri.
@@ -728,6 +751,19 @@ public class EnunciateJacksonContext extends EnunciateModuleContext implements S
 
     @Override
     public List<? extends DataType> getTypes() {
+      List<DataType> types = this.frozenTypes;
+      if (types == null) {
+        types = gatherTypes();
+        if (getContext().getApiRegistry().isFrozen()) {
+          //the model is frozen; the types won't change anymore.
+          types = Collections.unmodifiableList(types);
+          this.frozenTypes = types;
+        }
+      }
+      return types;
+    }
+
+    private List<DataType> gatherTypes() {
       Collection<TypeDefinition> typeDefinitions = getTypeDefinitions();
       ArrayList<DataType> dataTypes = new ArrayList<DataType>();
       FacetFilter facetFilter = getContext().getConfiguration().getFacetFilter();
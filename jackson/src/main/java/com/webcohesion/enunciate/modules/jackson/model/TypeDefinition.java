@@ -18,6 +18,7 @@ package com.webcohesion.enunciate.modules.jackson.model;
 import com.fasterxml.jackson.annotation.*;
 import com.webcohesion.enunciate.EnunciateException;
 import com.webcohesion.enunciate.facets.Facet;
+import com.webcohesion.enunciate.facets.FacetSet;
 import com.webcohesion.enunciate.facets.HasFacets;
 import com.webcohesion.enunciate.javac.decorations.DecoratedProcessingEnvironment;
 import com.webcohesion.enunciate.javac.decorations.element.*;
@@ -49,7 +50,7 @@ public abstract class TypeDefinition extends DecoratedTypeElement implements Has
   private final Value value;
   private final WildcardMember wildcardMember;
   private final LinkedList<javax.lang.model.element.Element> referencedFrom = new LinkedList<javax.lang.model.element.Element>();
-  private final Set<Facet> facets = new TreeSet<Facet>();
+  private final Set<Facet> facets = new FacetSet();
   protected final EnunciateJacksonContext context;
   private final String[] propOrder;
 
@@ -16,13 +16,13 @@
 package com.webcohesion.enunciate.modules.jackson.model;
 
 import com.webcohesion.enunciate.facets.Facet;
+import com.webcohesion.enunciate.facets.FacetSet;
 import com.webcohesion.enunciate.facets.HasFacets;
 import com.webcohesion.enunciate.javac.decorations.element.DecoratedElement;
 import com.webcohesion.enunciate.metadata.ClientName;
 import com.webcohesion.enunciate.modules.jackson.EnunciateJacksonContext;
 
 import java.util.Set;
-import java.util.TreeSet;
 
 /**
  * Used to wrap @JsonAnyGetter.
@@ -31,7 +31,7 @@ import java.util.TreeSet;
  */
 public class WildcardMember extends DecoratedElement<javax.lang.model.element.Element> implements HasFacets {
 
-  private final Set<Facet> facets = new TreeSet<Facet>();
+  private final Set<Facet> facets = new FacetSet();
 
   public WildcardMember(javax.lang.model.element.Element delegate, TypeDefinition typeDef, EnunciateJacksonContext context) {
     super(delegate, context.getContext().getProcessingEnvironment());
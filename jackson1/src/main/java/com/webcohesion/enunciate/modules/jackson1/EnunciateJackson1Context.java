@@ -77,6 +77,7 @@ public class EnunciateJackson1Context extends EnunciateModuleContext implements
   private final boolean collapseTypeHierarchy;
   private final Map<String, String> mixins;
   private final boolean disableExamples;
+  private final JacksonNamespace namespace = new JacksonNamespace();
 
   public EnunciateJackson1Context(EnunciateContext context, boolean honorJaxb, KnownJsonType dateType, boolean collapseTypeHierarchy, Map<String, String> mixins, boolean disableExamples) {
     super(context);
@@ -178,7 +179,7 @@ public class EnunciateJackson1Context extends EnunciateModuleContext implements
   }
 
   public Namespace getNamespace() {
-    return new JacksonNamespace();
+    return this.namespace;
   }
 
   public JsonType getKnownType(Element declaration) {
@@ -708,6 +709,9 @@ public class EnunciateJackson1Context extends EnunciateModuleContext implements
   }
 
   private class JacksonNamespace implements Namespace {
+
+    private volatile List<DataType> frozenTypes;
+
     @Override
     public String getUri() {
       return null; //json has no namespace uri.
@@ -720,6 +724,19 @@ public class EnunciateJackson1Context extends EnunciateModuleContext implements
 
     @Override
     public List<? extends DataType> getTypes() {
+      List<DataType> types = this.frozenTypes;
+      if (types == null) {
+        types = gatherTypes();
+        if (getContext().getApiRegistry().isFrozen()) {
+          //the model is frozen; the types won't change anymore.
+          types = Collections.unmodifiableList(types);
+          this.frozenTypes = types;
+        }
+      }
+      return types;
+    }
+
+    private List<DataType> gatherTypes() {
       Collection<TypeDefinition> typeDefinitions = getTypeDefinitions();
       ArrayList<DataType> dataTypes = new ArrayList<DataType>();
       FacetFilter facetFilter = getContext().getConfiguration().getFacetFilter();
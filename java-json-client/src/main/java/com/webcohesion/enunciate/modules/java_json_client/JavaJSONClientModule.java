@@ -15,7 +15,6 @@
  */
 package com.webcohesion.enunciate.modules.java_json_client;
 
-import com.sun.tools.javac.api.JavacTool;
 import com.webcohesion.enunciate.Enunciate;
 import com.webcohesion.enunciate.EnunciateContext;
 import com.webcohesion.enunciate.EnunciateException;
@@ -32,6 +31,7 @@ import com.webcohesion.enunciate.metadata.DocumentationExample;
 import com.webcohesion.enunciate.module.*;
 import com.webcohesion.enunciate.modules.jackson.EnunciateJacksonContext;
 import com.webcohesion.enunciate.modules.jackson.JacksonModule;
+import com.webcohesion.enunciate.modules.jackson.model.Member;
 import com.webcohesion.enunciate.modules.jackson.model.TypeDefinition;
 import com.webcohesion.enunciate.modules.jackson.model.util.JacksonCodeErrors;
 import com.webcohesion.enunciate.modules.jackson1.EnunciateJackson1Context;
@@ -39,6 +39,7 @@ import com.webcohesion.enunciate.modules.jackson1.Jackson1Module;
 import com.webcohesion.enunciate.modules.jackson1.model.util.Jackson1CodeErrors;
 import com.webcohesion.enunciate.modules.jaxrs.JaxrsModule;
 import com.webcohesion.enunciate.util.AntPatternMatcher;
+import com.webcohesion.enunciate.util.IncrementalJavaCompiler;
 import com.webcohesion.enunciate.util.freemarker.AnnotationValueMethod;
 import com.webcohesion.enunciate.util.freemarker.ClientPackageForMethod;
 import com.webcohesion.enunciate.util.freemarker.FileDirective;
@@ -52,7 +53,6 @@ import freemarker.template.TemplateExceptionHandler;
 import org.apache.commons.configuration.HierarchicalConfiguration;
 
 import javax.lang.model.element.TypeElement;
-import javax.tools.JavaCompiler;
 import javax.tools.JavaFileObject;
 import java.io.*;
 import java.net.MalformedURLException;
@@ -173,7 +173,8 @@ public class JavaJSONClientModule extends BasicGeneratingModule implements ApiFe
     model.put("packageFor", new ClientPackageForMethod(conversions, this.context));
     model.put("classnameFor", classnameFor);
     model.put("simpleNameFor", new SimpleNameForMethod(classnameFor, jsonContext));
-    model.put("file", new FileDirective(sourceDir, this.enunciate.getLogger()));
+    FileDirective fileDirective = new FileDirective(sourceDir, this.enunciate.getLogger());
+    model.put("file", fileDirective);
     model.put("generatedCodeLicense", this.enunciate.getConfiguration().readGeneratedCodeLicenseFile());
     model.put("annotationValue", new AnnotationValueMethod());
 
@@ -193,6 +194,8 @@ public class JavaJSONClientModule extends BasicGeneratingModule implements ApiFe
       try {
         debug("Generating the Java client classes...");
 
+        boolean generateSerializers = isGenerateSerializers();
+        TreeMap<String, TypeDefinition> streamableTypes = new TreeMap<String, TypeDefinition>();
         if (jacksonContext != null) {
           for (TypeDefinition typeDefinition : jacksonContext.getTypeDefinitions()) {
             if (facetFilter.accept(typeDefinition)) {
@@ -200,12 +203,33 @@ public class JavaJSONClientModule extends BasicGeneratingModule implements ApiFe
                 copyServerSideType(sourceDir, typeDefinition);
               }
               else {
+                boolean streamable = generateSerializers && isStreamable(typeDefinition);
+                if (streamable) {
+                  streamableTypes.put(classnameFor.convert(typeDefinition), typeDefinition);
+                }
                 model.put("type", typeDefinition);
+                model.put("streamable", streamable);
                 URL template = typeDefinition.isEnum() ? getTemplateURL("client-enum-type.fmt") : typeDefinition.isSimple() ? getTemplateURL("client-simple-type.fmt") : getTemplateURL("client-complex-type.fmt");
                 processTemplate(template, model);
               }
             }
           }
+          model.remove("streamable");
+        }
+
+        if (!streamableTypes.isEmpty()) {
+          String moduleClass = getSerializersModuleClass();
+          if (moduleClass == null) {
+            String firstType = streamableTypes.firstKey();
+            int lastDot = firstType.lastIndexOf('.');
+            moduleClass = (lastDot > 0 ? firstType.substring(0, lastDot + 1) : "") + "JsonClientSerializersModule";
+          }
+          int lastDot = moduleClass.lastIndexOf('.');
+          model.put("serializersModulePackage", lastDot > 0 ? moduleClass.substring(0, lastDot) : "");
+          model.put("serializersModuleName", moduleClass.substring(lastDot + 1));
+          model.put("streamableTypes", new ArrayList<TypeDefinition>(streamableTypes.values()));
+          processTemplate(getTemplateURL("client-serializers-module.fmt"), model);
+          debug("Generated streaming serializers for %s types, registered by %s.", streamableTypes.size(), moduleClass);
         }
 
         if (jackson1Context != null) {
@@ -222,6 +246,8 @@ public class JavaJSONClientModule extends BasicGeneratingModule implements ApiFe
             }
           }
         }
+
+        debug("Wrote %s Java client source file(s); skipped %s unchanged file(s).", fileDirective.getWrittenFiles(), fileDirective.getSkippedFiles());
       }
       catch (IOException e) {
         throw new EnunciateException(e);
@@ -340,25 +366,31 @@ public class JavaJSONClientModule extends BasicGeneratingModule implements ApiFe
     File compileDir = getCompileDir();
     compileDir.mkdirs();
 
-    //Compile the java files.
+    //Compile the java files. The compile is incremental, so it's not skipped based on timestamps: the compiler
+    //detects the changed sources itself.
     if (!isDisableCompile()) {
-      if (!isUpToDateWithSources(compileDir)) {
-        List<File> sources = findJavaFiles(sourceDir);
-        if (sources != null && !sources.isEmpty()) {
-          String classpath = this.enunciate.writeClasspath(enunciate.getClasspath());
-          JavaCompiler compiler = JavacTool.create();
-          List<String> options = Arrays.asList("-source", getJavacSource(), "-target", getJavacTarget(), "-encoding", "UTF-8", "-cp", classpath, "-d", compileDir.getAbsolutePath(), "-nowarn");
-          JavaCompiler.CompilationTask task = compiler.getTask(null, null, null, options, null, compiler.getStandardFileManager(null, null, null).getJavaFileObjectsFromFiles(sources));
-          if (!task.call()) {
-            throw new EnunciateException("Compile failed of Java JSON client-side classes.");
+      List<File> sources = findJavaFiles(sourceDir);
+      if (sources != null && !sources.isEmpty()) {
+        String classpath = this.enunciate.writeClasspath(enunciate.getClasspath());
+        List<String> options = Arrays.asList("-source", getJavacSource(), "-target", getJavacTarget(), "-encoding", "UTF-8", "-nowarn");
+        IncrementalJavaCompiler compiler = new IncrementalJavaCompiler(this.enunciate.getLogger(), sourceDir, compileDir, getCompileStateFile());
+        try {
+          try {
+            if (!compiler.compile(sources, classpath, options)) {
+              throw new EnunciateException("Compile failed of Java JSON client-side classes.");
+            }
+          }
+          finally {
+            compiler.close();
           }
         }
-        else {
-          debug("No Java JSON client classes to compile.");
+        catch (IOException e) {
+          throw new EnunciateException(e);
         }
+        debug("Compiled %s Java JSON client source(s); reused the classes of %s unchanged source(s).", compiler.getCompiledSources(), compiler.getReusedSources());
       }
       else {
-        info("Skipping compilation of Java JSON client classes as everything appears up-to-date...");
+        debug("No Java JSON client classes to compile.");
       }
     }
 
@@ -381,6 +413,10 @@ public class JavaJSONClientModule extends BasicGeneratingModule implements ApiFe
     return new File(new File(this.enunciate.getBuildDir(), getName()), "classes");
   }
 
+  protected File getCompileStateFile() {
+    return new File(new File(this.enunciate.getBuildDir(), getName()), "classes.state");
+  }
+
   protected File getResourcesDir() {
     return new File(new File(this.enunciate.getBuildDir(), getName()), "resources");
   }
@@ -627,6 +663,51 @@ public class JavaJSONClientModule extends BasicGeneratingModule implements ApiFe
     return this.config.getBoolean("[@disableCompile]", this.jacksonModule == null || !this.jacksonModule.isJacksonDetected());
   }
 
+  /**
+   * Whether to generate reflection-free streaming serializers/deserializers (and a Jackson module registering them)
+   * for the client-side types that support it.
+   *
+   * @return Whether to generate streaming serializers.
+   */
+  public boolean isGenerateSerializers() {
+    return this.config.getBoolean("[@generateSerializers]", false);
+  }
+
+  /**
+   * The fully-qualified name of the generated Jackson module that registers the streaming serializers.
+   *
+   * @return The fully-qualified name of the generated Jackson module, or null to derive one.
+   */
+  public String getSerializersModuleClass() {
+    return this.config.getString("[@serializersModuleClass]", null);
+  }
+
+  /**
+   * Whether a streaming serializer/deserializer can be generated for the specified type. Only concrete, non-generic
+   * object types at the root of their hierarchy with plain (non-polymorphic) members are supported; everything else
+   * is left to Jackson's bean introspection.
+   *
+   * @param typeDefinition The type definition.
+   * @return Whether a streaming serializer/deserializer can be generated.
+   */
+  protected boolean isStreamable(TypeDefinition typeDefinition) {
+    if (!typeDefinition.isObject() || !typeDefinition.isBaseObject() || typeDefinition.isAbstract() || typeDefinition.isHasTypeInfo()) {
+      return false;
+    }
+
+    if (typeDefinition.getValue() != null || typeDefinition.getWildcardMember() != null || !typeDefinition.getTypeParameters().isEmpty()) {
+      return false;
+    }
+
+    for (Member member : typeDefinition.getMembers()) {
+      if (member.getChoices().size() > 1 || member.getSubtypeIdInclusion() != null) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
   public Set<String> getFacetIncludes() {
     List<Object> includes = this.config.getList("facets.include[@name]");
     Set<String> facetIncludes = new TreeSet<String>();
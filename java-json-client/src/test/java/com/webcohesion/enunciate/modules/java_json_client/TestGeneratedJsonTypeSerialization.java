@@ -15,7 +15,10 @@
  */
 package com.webcohesion.enunciate.modules.java_json_client;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ser.DefaultSerializerProvider;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import junit.framework.TestCase;
 import com.webcohesion.enunciate.rt.QNameEnumUtil;
@@ -28,6 +31,8 @@ import com.webcohesion.enunciate.examples.java_json_client.schema.structures.Hou
 import com.webcohesion.enunciate.examples.java_json_client.schema.structures.HouseType;
 import com.webcohesion.enunciate.examples.java_json_client.schema.vehicles.Bus;
 import com.webcohesion.enunciate.examples.java_json_client.schema.vehicles.BusType;
+import com.webcohesion.enunciate.examples.java_json_client.schema.vehicles.Timetable;
+import com.webcohesion.enunciate.examples.java_json_client.schema.vehicles.TimetableStop;
 import com.fasterxml.jackson.jaxrs.json.JacksonJaxbJsonProvider;
 import org.joda.time.DateTime;
 import com.webcohesion.enunciate.examples.java_json_client.schema.*;
@@ -837,4 +842,152 @@ public class TestGeneratedJsonTypeSerialization extends TestCase {
     //todo: test element ref to an attachment element
     //todo: test element refs of attachment elements.
   }
+
+  /**
+   * tests the generated streaming serializers. They have to write the same JSON as Jackson's bean serialization of the
+   * client classes (including leaving out the null properties) and read back the same values.
+   */
+  public void testStreamingSerializers() throws Exception {
+    Timetable timetable = new Timetable();
+    timetable.setRoute("route 66");
+    timetable.setExpress(true);
+    timetable.setDeparture(1234567890123L);
+    timetable.setFare(2.5);
+    //the capacity is left null.
+    timetable.setDrivers(Arrays.asList("fred", "wilma"));
+    TimetableStop stop1 = new TimetableStop();
+    stop1.setName("main street");
+    stop1.setMinute(5);
+    //the request is left null.
+    TimetableStop stop2 = new TimetableStop();
+    stop2.setName("station");
+    stop2.setMinute(12);
+    stop2.setRequest(Boolean.TRUE);
+    timetable.setStops(Arrays.asList(stop1, stop2));
+
+    JacksonJaxbJsonProvider provider = new JacksonJaxbJsonProvider();
+    ObjectMapper timetableMapper = provider.locateMapper(Timetable.class, MediaType.APPLICATION_JSON_TYPE);
+    ObjectMapper clientMapper = new ObjectMapper();
+    ObjectMapper streamingMapper = new ObjectMapper();
+    streamingMapper.registerModule(new shapes.json.ShapesSerializersModule());
+    DefaultSerializerProvider serializers = ((DefaultSerializerProvider) streamingMapper.getSerializerProvider()).createInstance(streamingMapper.getSerializationConfig(), streamingMapper.getSerializerFactory());
+    assertTrue(serializers.findValueSerializer(shapes.json.vehicles.Timetable.class, null) instanceof shapes.json.vehicles.Timetable.StreamingSerializer);
+    assertTrue(serializers.findValueSerializer(shapes.json.vehicles.TimetableStop.class, null) instanceof shapes.json.vehicles.TimetableStop.StreamingSerializer);
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    timetableMapper.writeValue(out, timetable);
+    shapes.json.vehicles.Timetable clientTimetable = streamingMapper.readValue(new ByteArrayInputStream(out.toByteArray()), shapes.json.vehicles.Timetable.class);
+    assertEquals("route 66", clientTimetable.getRoute());
+    assertTrue(clientTimetable.getExpress());
+    assertEquals(1234567890123L, clientTimetable.getDeparture());
+    assertNull(clientTimetable.getCapacity());
+    assertEquals(Double.valueOf(2.5), clientTimetable.getFare());
+    assertEquals(Arrays.asList("fred", "wilma"), clientTimetable.getDrivers());
+    assertEquals(2, clientTimetable.getStops().size());
+    assertEquals("main street", clientTimetable.getStops().get(0).getName());
+    assertEquals(5, clientTimetable.getStops().get(0).getMinute());
+    assertNull(clientTimetable.getStops().get(0).getRequest());
+    assertEquals("station", clientTimetable.getStops().get(1).getName());
+    assertEquals(12, clientTimetable.getStops().get(1).getMinute());
+    assertEquals(Boolean.TRUE, clientTimetable.getStops().get(1).getRequest());
+
+    JsonNode streamed = clientMapper.readTree(streamingMapper.writeValueAsBytes(clientTimetable));
+    assertEquals(clientMapper.readTree(clientMapper.writeValueAsBytes(clientTimetable)), streamed);
+    assertFalse("null properties should be left out", streamed.has("capacity"));
+    assertFalse("null properties should be left out", streamed.get("stops").get(0).has("request"));
+
+    timetable = timetableMapper.readValue(new ByteArrayInputStream(streamingMapper.writeValueAsBytes(clientTimetable)), Timetable.class);
+    assertEquals("route 66", timetable.getRoute());
+    assertTrue(timetable.isExpress());
+    assertEquals(1234567890123L, timetable.getDeparture());
+    assertNull(timetable.getCapacity());
+    assertEquals(Double.valueOf(2.5), timetable.getFare());
+    assertEquals(Arrays.asList("fred", "wilma"), timetable.getDrivers());
+    assertEquals(2, timetable.getStops().size());
+    assertNull(timetable.getStops().get(0).getRequest());
+    assertEquals(Boolean.TRUE, timetable.getStops().get(1).getRequest());
+
+    //an (almost) empty timetable.
+    shapes.json.vehicles.Timetable emptyTimetable = new shapes.json.vehicles.Timetable();
+    emptyTimetable.setDrivers(new ArrayList<String>());
+    streamed = clientMapper.readTree(streamingMapper.writeValueAsBytes(emptyTimetable));
+    assertEquals(clientMapper.readTree(clientMapper.writeValueAsBytes(emptyTimetable)), streamed);
+    assertEquals(3, streamed.size());
+    assertEquals(0, streamed.get("drivers").size());
+    emptyTimetable = streamingMapper.readValue(streamingMapper.writeValueAsBytes(emptyTimetable), shapes.json.vehicles.Timetable.class);
+    assertNull(emptyTimetable.getRoute());
+    assertNull(emptyTimetable.getStops());
+    assertTrue(emptyTimetable.getDrivers().isEmpty());
+
+    //the other types aren't streamed, but they have to go through a mapper with the module registered all the same.
+    Bus bus = new Bus();
+    bus.setId("bus id");
+    Rectangle frame = new Rectangle();
+    frame.setWidth(50);
+    frame.setHeight(10);
+    bus.setFrame(frame);
+    out = new ByteArrayOutputStream();
+    provider.locateMapper(Bus.class, MediaType.APPLICATION_JSON_TYPE).writeValue(out, bus);
+    shapes.json.vehicles.Bus clientBus = streamingMapper.readValue(new ByteArrayInputStream(out.toByteArray()), shapes.json.vehicles.Bus.class);
+    assertEquals("bus id", clientBus.getId());
+    assertEquals(50, clientBus.getFrame().getWidth());
+    assertEquals(clientMapper.readTree(clientMapper.writeValueAsBytes(clientBus)), clientMapper.readTree(streamingMapper.writeValueAsBytes(clientBus)));
+  }
+
+  /**
+   * tests streaming the items of a collection property out of a document.
+   */
+  public void testStreamProperty() throws Exception {
+    Timetable timetable = new Timetable();
+    timetable.setRoute("route 66");
+    timetable.setDrivers(Arrays.asList("fred", "wilma"));
+    TimetableStop stop1 = new TimetableStop();
+    stop1.setName("main street");
+    stop1.setMinute(5);
+    TimetableStop stop2 = new TimetableStop();
+    stop2.setName("station");
+    stop2.setMinute(12);
+    stop2.setRequest(Boolean.TRUE);
+    timetable.setStops(Arrays.asList(stop1, stop2));
+
+    JacksonJaxbJsonProvider provider = new JacksonJaxbJsonProvider();
+    ObjectMapper timetableMapper = provider.locateMapper(Timetable.class, MediaType.APPLICATION_JSON_TYPE);
+    ObjectMapper clientMapper = new ObjectMapper();
+    byte[] json = timetableMapper.writeValueAsBytes(timetable);
+
+    //the other properties are skipped.
+    Iterator<shapes.json.vehicles.TimetableStop> stops = shapes.json.vehicles.Timetable.streamStops(clientMapper.getFactory().createParser(json));
+    assertTrue(stops.hasNext());
+    shapes.json.vehicles.TimetableStop stop = stops.next();
+    assertEquals("main street", stop.getName());
+    assertEquals(5, stop.getMinute());
+    assertNull(stop.getRequest());
+    assertTrue(stops.hasNext());
+    stop = stops.next();
+    assertEquals("station", stop.getName());
+    assertEquals(12, stop.getMinute());
+    assertEquals(Boolean.TRUE, stop.getRequest());
+    assertFalse(stops.hasNext());
+
+    Iterator<String> drivers = shapes.json.vehicles.Timetable.streamDrivers(clientMapper.getFactory().createParser(json));
+    assertEquals("fred", drivers.next());
+    assertEquals("wilma", drivers.next());
+    assertFalse(drivers.hasNext());
+
+    //empty (and missing) list.
+    stops = shapes.json.vehicles.Timetable.streamStops(clientMapper.getFactory().createParser("{\"route\":\"route 66\",\"stops\":[],\"drivers\":[\"fred\"]}"));
+    assertFalse(stops.hasNext());
+    stops = shapes.json.vehicles.Timetable.streamStops(clientMapper.getFactory().createParser("{\"route\":\"route 66\"}"));
+    assertFalse(stops.hasNext());
+
+    //properties of the same name that aren't properties of the document aren't streamed.
+    JsonParser parser = clientMapper.getFactory().createParser("{\"route\":\"route 66\","
+      + "\"extra\":{\"stops\":[{\"name\":\"nested\",\"minute\":1}]},"
+      + "\"drivers\":[{\"stops\":[]}],"
+      + "\"stops\":[{\"name\":\"main street\",\"minute\":5},{\"name\":\"station\",\"minute\":12}]}");
+    stops = shapes.json.vehicles.Timetable.streamStops(parser);
+    assertEquals("main street", stops.next().getName());
+    assertEquals("station", stops.next().getName());
+    assertFalse(stops.hasNext());
+  }
 }
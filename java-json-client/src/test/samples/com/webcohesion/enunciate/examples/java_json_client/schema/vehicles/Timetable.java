@@ -0,0 +1,90 @@
+/**
+ * Copyright © 2006-2016 Web Cohesion (info@webcohesion.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webcohesion.enunciate.examples.java_json_client.schema.vehicles;
+
+import javax.xml.bind.annotation.XmlRootElement;
+import java.util.List;
+
+/**
+ * @author Ryan Heaton
+ */
+@XmlRootElement
+public class Timetable {
+
+  private String route;
+  private boolean express;
+  private long departure;
+  private Integer capacity;
+  private Double fare;
+  private List<String> drivers;
+  private List<TimetableStop> stops;
+
+  public String getRoute() {
+    return route;
+  }
+
+  public void setRoute(String route) {
+    this.route = route;
+  }
+
+  public boolean isExpress() {
+    return express;
+  }
+
+  public void setExpress(boolean express) {
+    this.express = express;
+  }
+
+  public long getDeparture() {
+    return departure;
+  }
+
+  public void setDeparture(long departure) {
+    this.departure = departure;
+  }
+
+  public Integer getCapacity() {
+    return capacity;
+  }
+
+  public void setCapacity(Integer capacity) {
+    this.capacity = capacity;
+  }
+
+  public Double getFare() {
+    return fare;
+  }
+
+  public void setFare(Double fare) {
+    this.fare = fare;
+  }
+
+  public List<String> getDrivers() {
+    return drivers;
+  }
+
+  public void setDrivers(List<String> drivers) {
+    this.drivers = drivers;
+  }
+
+  public List<TimetableStop> getStops() {
+    return stops;
+  }
+
+  public void setStops(List<TimetableStop> stops) {
+    this.stops = stops;
+  }
+}
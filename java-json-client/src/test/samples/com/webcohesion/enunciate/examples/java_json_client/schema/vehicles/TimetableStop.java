@@ -0,0 +1,53 @@
+/**
+ * Copyright © 2006-2016 Web Cohesion (info@webcohesion.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webcohesion.enunciate.examples.java_json_client.schema.vehicles;
+
+import javax.xml.bind.annotation.XmlType;
+
+/**
+ * @author Ryan Heaton
+ */
+@XmlType
+public class TimetableStop {
+
+  private String name;
+  private int minute;
+  private Boolean request;
+
+  public String getName() {
+    return name;
+  }
+
+  public void setName(String name) {
+    this.name = name;
+  }
+
+  public int getMinute() {
+    return minute;
+  }
+
+  public void setMinute(int minute) {
+    this.minute = minute;
+  }
+
+  public Boolean getRequest() {
+    return request;
+  }
+
+  public void setRequest(Boolean request) {
+    this.request = request;
+  }
+}
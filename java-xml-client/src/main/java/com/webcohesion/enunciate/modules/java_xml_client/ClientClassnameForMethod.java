@@ -108,7 +108,7 @@ public class ClientClassnameForMethod extends com.webcohesion.enunciate.util.fre
         return convert(superType);
       }
     }
-    String convertedPackage = convertPackage(this.context.getProcessingEnvironment().getElementUtils().getPackageOf(declaration));
+    String convertedPackage = convertPackage(packageOf(declaration));
     ClientName specifiedName = declaration.getAnnotation(ClientName.class);
     String simpleName = specifiedName == null ? declaration.getSimpleName().toString() : specifiedName.value();
     return convertedPackage + getPackageSeparator() + simpleName;
@@ -15,7 +15,6 @@
  */
 package com.webcohesion.enunciate.modules.java_xml_client;
 
-import com.sun.tools.javac.api.JavacTool;
 import com.webcohesion.enunciate.Enunciate;
 import com.webcohesion.enunciate.EnunciateContext;
 import com.webcohesion.enunciate.EnunciateException;
@@ -42,6 +41,7 @@ import com.webcohesion.enunciate.modules.jaxws.JaxwsModule;
 import com.webcohesion.enunciate.modules.jaxws.WsdlInfo;
 import com.webcohesion.enunciate.modules.jaxws.model.*;
 import com.webcohesion.enunciate.util.AntPatternMatcher;
+import com.webcohesion.enunciate.util.IncrementalJavaCompiler;
 import com.webcohesion.enunciate.util.freemarker.*;
 import freemarker.cache.URLTemplateLoader;
 import freemarker.core.Environment;
@@ -53,7 +53,6 @@ import org.apache.commons.configuration.HierarchicalConfiguration;
 
 import javax.lang.model.element.TypeElement;
 import javax.lang.model.type.DeclaredType;
-import javax.tools.JavaCompiler;
 import javax.tools.JavaFileObject;
 import java.io.*;
 import java.net.MalformedURLException;
@@ -70,6 +69,7 @@ public class JavaXMLClientModule extends BasicGeneratingModule implements ApiFea
   JaxbModule jaxbModule;
   JaxwsModule jaxwsModule;
   JaxrsModule jaxrsModule;
+  private final TreeSet<String> jaxbClasses = new TreeSet<String>();
 
   /**
    * @return "java-xml"
@@ -152,7 +152,8 @@ public class JavaXMLClientModule extends BasicGeneratingModule implements ApiFea
     model.put("packageFor", new ClientPackageForMethod(conversions, this.context));
     model.put("classnameFor", classnameFor);
     model.put("simpleNameFor", new SimpleNameForMethod(classnameFor));
-    model.put("file", new FileDirective(sourceDir, this.enunciate.getLogger()));
+    FileDirective fileDirective = new FileDirective(sourceDir, this.enunciate.getLogger());
+    model.put("file", fileDirective);
     model.put("generatedCodeLicense", this.enunciate.getConfiguration().readGeneratedCodeLicenseFile());
     model.put("annotationValue", new AnnotationValueMethod());
 
@@ -164,11 +165,34 @@ public class JavaXMLClientModule extends BasicGeneratingModule implements ApiFea
 
     model.put("isFacetExcluded", new IsFacetExcludedMethod(facetFilter));
 
+    String clientContextClass;
+    try {
+      clientContextClass = gatherJaxbClasses(classnameFor, facetFilter);
+    }
+    catch (TemplateException e) {
+      throw new EnunciateException(e);
+    }
+    int lastDot = clientContextClass.lastIndexOf('.');
+    model.put("clientContextClass", clientContextClass);
+    model.put("clientContextPackage", lastDot > 0 ? clientContextClass.substring(0, lastDot) : "");
+    model.put("clientContextName", clientContextClass.substring(lastDot + 1));
+    model.put("jaxbClasses", this.jaxbClasses);
+    model.put("jaxwsEnabled", hasEndpointInterfaces(facetFilter));
+
     boolean upToDate = isUpToDateWithSources(sourceDir);
     if (!upToDate) {
       try {
         debug("Generating the Java client classes...");
 
+        processTemplate(getTemplateURL("client-context.fmt"), model);
+        if (isGenerateBenchmark()) {
+          File benchmarkSourceDir = getBenchmarkSourceDir();
+          benchmarkSourceDir.mkdirs();
+          model.put("file", new FileDirective(benchmarkSourceDir, this.enunciate.getLogger()));
+          processTemplate(getTemplateURL("client-context-benchmark.fmt"), model);
+          model.put("file", fileDirective);
+        }
+
         HashMap<String, WebFault> allFaults = new HashMap<String, WebFault>();
         AntPatternMatcher matcher = new AntPatternMatcher();
         matcher.setPathSeparator(".");
@@ -273,6 +297,8 @@ public class JavaXMLClientModule extends BasicGeneratingModule implements ApiFea
             processTemplate(getTemplateURL("client-registry.fmt"), model);
           }
         }
+
+        debug("Wrote %s Java client source file(s); skipped %s unchanged file(s).", fileDirective.getWrittenFiles(), fileDirective.getSkippedFiles());
       }
       catch (IOException e) {
         throw new EnunciateException(e);
@@ -305,6 +331,70 @@ public class JavaXMLClientModule extends BasicGeneratingModule implements ApiFea
     return new File(new File(this.enunciate.getBuildDir(), getName()), "src");
   }
 
+  protected File getBenchmarkSourceDir() {
+    return new File(new File(this.enunciate.getBuildDir(), getName()), "benchmark-src");
+  }
+
+  /**
+   * Gather the client-side classes that make up the JAXB context of the client library.
+   *
+   * @param classnameFor The client classname conversion.
+   * @param facetFilter The facet filter.
+   * @return The fully-qualified name of the client context class to generate.
+   */
+  protected String gatherJaxbClasses(ClientClassnameForMethod classnameFor, FacetFilter facetFilter) throws TemplateException {
+    this.jaxbClasses.clear();
+    for (SchemaInfo schemaInfo : this.jaxbModule.getJaxbContext().getSchemas().values()) {
+      for (TypeDefinition typeDefinition : schemaInfo.getTypeDefinitions()) {
+        if (facetFilter.accept(typeDefinition)) {
+          String classname = classnameFor.convert(typeDefinition);
+          if (classname.indexOf('<') < 0) {
+            this.jaxbClasses.add(classname);
+          }
+        }
+      }
+    }
+
+    String clientContextClass = getClientContextClass();
+    if (clientContextClass == null) {
+      String anchor = null;
+      if (!this.jaxbClasses.isEmpty()) {
+        anchor = this.jaxbClasses.first();
+      }
+      else if (this.jaxwsModule != null) {
+        for (WsdlInfo wsdlInfo : this.jaxwsModule.getJaxwsContext().getWsdls().values()) {
+          for (EndpointInterface ei : wsdlInfo.getEndpointInterfaces()) {
+            String classname = classnameFor.convert(ei);
+            anchor = anchor == null || classname.compareTo(anchor) < 0 ? classname : anchor;
+          }
+        }
+      }
+
+      int lastDot = anchor == null ? -1 : anchor.lastIndexOf('.');
+      clientContextClass = (lastDot > 0 ? anchor.substring(0, lastDot + 1) : "") + "ClientContext";
+    }
+    return clientContextClass;
+  }
+
+  /**
+   * Whether any endpoint interfaces are generated (i.e. whether the client needs the JAX-WS support of the client context).
+   *
+   * @param facetFilter The facet filter.
+   * @return Whether any endpoint interfaces are generated.
+   */
+  protected boolean hasEndpointInterfaces(FacetFilter facetFilter) {
+    if (this.jaxwsModule != null) {
+      for (WsdlInfo wsdlInfo : this.jaxwsModule.getJaxwsContext().getWsdls().values()) {
+        for (EndpointInterface ei : wsdlInfo.getEndpointInterfaces()) {
+          if (facetFilter.accept(ei)) {
+            return true;
+          }
+        }
+      }
+    }
+    return false;
+  }
+
   /**
    * Processes the specified template with the given model.
    *
@@ -391,25 +481,31 @@ public class JavaXMLClientModule extends BasicGeneratingModule implements ApiFea
     File compileDir = getCompileDir();
     compileDir.mkdirs();
 
-    //Compile the java files.
+    //Compile the java files. The compile is incremental, so it's not skipped based on timestamps: the compiler
+    //detects the changed sources itself.
     if (!isDisableCompile()) {
-      if (!isUpToDateWithSources(compileDir)) {
-        List<File> sources = findJavaFiles(sourceDir);
-        if (sources != null && !sources.isEmpty()) {
-          String classpath = this.enunciate.writeClasspath(enunciate.getClasspath());
-          JavaCompiler compiler = JavacTool.create();
-          List<String> options = Arrays.asList("-source", getJavacSource(), "-target", getJavacTarget(), "-encoding", "UTF-8", "-cp", classpath, "-d", compileDir.getAbsolutePath(), "-nowarn");
-          JavaCompiler.CompilationTask task = compiler.getTask(null, null, null, options, null, compiler.getStandardFileManager(null, null, null).getJavaFileObjectsFromFiles(sources));
-          if (!task.call()) {
-            throw new EnunciateException("Compile failed of Java client-side classes.");
+      List<File> sources = findJavaFiles(sourceDir);
+      if (sources != null && !sources.isEmpty()) {
+        String classpath = this.enunciate.writeClasspath(enunciate.getClasspath());
+        List<String> options = Arrays.asList("-source", getJavacSource(), "-target", getJavacTarget(), "-encoding", "UTF-8", "-nowarn");
+        IncrementalJavaCompiler compiler = new IncrementalJavaCompiler(this.enunciate.getLogger(), sourceDir, compileDir, getCompileStateFile());
+        try {
+          try {
+            if (!compiler.compile(sources, classpath, options)) {
+              throw new EnunciateException("Compile failed of Java client-side classes.");
+            }
+          }
+          finally {
+            compiler.close();
           }
         }
-        else {
-          debug("No Java XML client classes to compile.");
+        catch (IOException e) {
+          throw new EnunciateException(e);
         }
+        debug("Compiled %s Java client source(s); reused the classes of %s unchanged source(s).", compiler.getCompiledSources(), compiler.getReusedSources());
       }
       else {
-        info("Skipping compilation of Java client classes as everything appears up-to-date...");
+        debug("No Java XML client classes to compile.");
       }
     }
 
@@ -432,6 +528,10 @@ public class JavaXMLClientModule extends BasicGeneratingModule implements ApiFea
     return new File(new File(this.enunciate.getBuildDir(), getName()), "classes");
   }
 
+  protected File getCompileStateFile() {
+    return new File(new File(this.enunciate.getBuildDir(), getName()), "classes.state");
+  }
+
   protected File copyResources() {
     File resourcesDir = getResourcesDir();
     resourcesDir.mkdirs();
@@ -450,6 +550,8 @@ public class JavaXMLClientModule extends BasicGeneratingModule implements ApiFea
           schemaInfo.getSchemaFile().writeTo(resourcesDir);
         }
       }
+
+      writeJaxbIndexes(resourcesDir);
     }
     catch (IOException e) {
       throw new EnunciateException(e);
@@ -459,6 +561,41 @@ public class JavaXMLClientModule extends BasicGeneratingModule implements ApiFea
 
   }
 
+  /**
+   * Write a jaxb.index for each package of the client library so the JAXB context can be created by context path.
+   *
+   * @param resourcesDir The resources directory.
+   */
+  protected void writeJaxbIndexes(File resourcesDir) throws IOException {
+    Map<String, List<String>> classesByPackage = new TreeMap<String, List<String>>();
+    for (String classname : this.jaxbClasses) {
+      int lastDot = classname.lastIndexOf('.');
+      String pckg = lastDot > 0 ? classname.substring(0, lastDot) : "";
+      List<String> classes = classesByPackage.get(pckg);
+      if (classes == null) {
+        classes = new ArrayList<String>();
+        classesByPackage.put(pckg, classes);
+      }
+      classes.add(classname.substring(lastDot + 1));
+    }
+
+    for (Map.Entry<String, List<String>> entry : classesByPackage.entrySet()) {
+      File dir = entry.getKey().isEmpty() ? resourcesDir : new File(resourcesDir, entry.getKey().replace('.', File.separatorChar));
+      dir.mkdirs();
+      File index = new File(dir, "jaxb.index");
+      PrintWriter writer = new PrintWriter(index, "utf-8");
+      try {
+        for (String simpleName : entry.getValue()) {
+          writer.println(simpleName);
+        }
+      }
+      finally {
+        writer.close();
+      }
+      debug("Wrote %s.", index);
+    }
+  }
+
   protected File getResourcesDir() {
     return new File(new File(this.enunciate.getBuildDir(), getName()), "resources");
   }
@@ -720,7 +857,7 @@ public class JavaXMLClientModule extends BasicGeneratingModule implements ApiFea
   }
 
   public List<File> getProjectTestSources() {
-    return Arrays.asList(getSourceDir());
+    return isGenerateBenchmark() ? Arrays.asList(getSourceDir(), getBenchmarkSourceDir()) : Arrays.asList(getSourceDir());
   }
 
   public List<File> getProjectResourceDirectories() {
@@ -740,6 +877,24 @@ public class JavaXMLClientModule extends BasicGeneratingModule implements ApiFea
     return this.config.getBoolean("[@disableCompile]", false);
   }
 
+  /**
+   * The fully-qualified name of the generated client context class (holding the JAXB context and the marshallers).
+   *
+   * @return The fully-qualified name of the generated client context class, or null to derive one.
+   */
+  public String getClientContextClass() {
+    return this.config.getString("[@clientContextClass]", null);
+  }
+
+  /**
+   * Whether to generate a microbenchmark of the client context into the project test sources (default: false).
+   *
+   * @return Whether to generate a microbenchmark of the client context.
+   */
+  public boolean isGenerateBenchmark() {
+    return this.config.getBoolean("[@generateBenchmark]", false);
+  }
+
   public Set<String> getFacetIncludes() {
     List<Object> includes = this.config.getList("facets.include[@name]");
     Set<String> facetIncludes = new TreeSet<String>();
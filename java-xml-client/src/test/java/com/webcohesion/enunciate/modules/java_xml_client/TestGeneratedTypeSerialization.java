@@ -27,6 +27,8 @@ import com.webcohesion.enunciate.examples.java_xml_client.schema.structures.Hous
 import com.webcohesion.enunciate.examples.java_xml_client.schema.structures.HouseType;
 import com.webcohesion.enunciate.examples.java_xml_client.schema.vehicles.Bus;
 import com.webcohesion.enunciate.examples.java_xml_client.schema.vehicles.BusType;
+import com.webcohesion.enunciate.examples.java_xml_client.schema.vehicles.Timetable;
+import com.webcohesion.enunciate.examples.java_xml_client.schema.vehicles.TimetableStop;
 import org.joda.time.DateTime;
 
 import javax.activation.DataHandler;
@@ -34,6 +36,8 @@ import javax.xml.bind.JAXBContext;
 import javax.xml.bind.Marshaller;
 import javax.xml.bind.Unmarshaller;
 import javax.xml.bind.attachment.AttachmentMarshaller;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamReader;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.net.URI;
@@ -879,4 +883,74 @@ public class TestGeneratedTypeSerialization extends TestCase {
     //todo: test element ref to an attachment element
     //todo: test element refs of attachment elements.
   }
+
+  /**
+   * tests streaming the items of a collection property out of a document.
+   */
+  public void testStreamElements() throws Exception {
+    Timetable timetable = new Timetable();
+    timetable.setRoute("route 66");
+    timetable.setDrivers(Arrays.asList("fred", "wilma"));
+    TimetableStop stop1 = new TimetableStop();
+    stop1.setName("main street");
+    stop1.setMinute(5);
+    TimetableStop stop2 = new TimetableStop();
+    stop2.setName("station");
+    stop2.setMinute(12);
+    stop2.setRequest(Boolean.TRUE);
+    timetable.setStops(Arrays.asList(stop1, stop2));
+
+    JAXBContext context = JAXBContext.newInstance(Timetable.class);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    context.createMarshaller().marshal(timetable, out);
+    XMLInputFactory xmlInputFactory = XMLInputFactory.newInstance();
+
+    //the route and the drivers are skipped.
+    Iterator<shapes.vehicles.TimetableStop> stops = shapes.vehicles.Timetable.streamStops(xmlInputFactory.createXMLStreamReader(new ByteArrayInputStream(out.toByteArray())));
+    assertTrue(stops.hasNext());
+    shapes.vehicles.TimetableStop stop = stops.next();
+    assertEquals("main street", stop.getName());
+    assertEquals(5, stop.getMinute());
+    assertNull(stop.getRequest());
+    assertTrue(stops.hasNext());
+    stop = stops.next();
+    assertEquals("station", stop.getName());
+    assertEquals(12, stop.getMinute());
+    assertEquals(Boolean.TRUE, stop.getRequest());
+    assertFalse(stops.hasNext());
+
+    //the stops that follow the drivers are skipped.
+    Iterator<String> drivers = shapes.vehicles.Timetable.streamDrivers(xmlInputFactory.createXMLStreamReader(new ByteArrayInputStream(out.toByteArray())));
+    assertEquals("fred", drivers.next());
+    assertEquals("wilma", drivers.next());
+    assertFalse(drivers.hasNext());
+
+    //empty list.
+    timetable.setStops(new ArrayList<TimetableStop>());
+    out = new ByteArrayOutputStream();
+    context.createMarshaller().marshal(timetable, out);
+    stops = shapes.vehicles.Timetable.streamStops(xmlInputFactory.createXMLStreamReader(new ByteArrayInputStream(out.toByteArray())));
+    assertFalse(stops.hasNext());
+    try {
+      stops.next();
+      fail();
+    }
+    catch (NoSuchElementException e) {
+      //fall through...
+    }
+
+    //elements of the same name that aren't children of the document element aren't streamed.
+    String xml = "<ns:timetable xmlns:ns=\"http://samples.enunciate.webcohesion.com/vehicles\">"
+      + "<route>route 66</route>"
+      + "<extra><stops><name>nested</name><minute>1</minute></stops></extra>"
+      + "<stops><name>main street</name><minute>5</minute><stops><name>nested</name></stops></stops>"
+      + "<drivers>fred</drivers>"
+      + "<stops><name>station</name><minute>12</minute></stops>"
+      + "</ns:timetable>";
+    XMLStreamReader reader = xmlInputFactory.createXMLStreamReader(new ByteArrayInputStream(xml.getBytes("utf-8")));
+    stops = shapes.vehicles.Timetable.streamStops(reader);
+    assertEquals("main street", stops.next().getName());
+    assertEquals("station", stops.next().getName());
+    assertFalse(stops.hasNext());
+  }
 }
@@ -33,6 +33,7 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * @author Ryan Heaton
@@ -45,6 +46,8 @@ public class DecoratedProcessingEnvironment implements ProcessingEnvironment {
   private final List<ElementDecoration> elementDecorations;
   private final List<TypeMirrorDecoration> typeMirrorDecorations;
   private final List<AnnotationMirrorDecoration> annotationMirrorDecorations;
+  private final AtomicLong typeVariableCacheHits = new AtomicLong();
+  private final AtomicLong typeVariableCacheMisses = new AtomicLong();
 
   public DecoratedProcessingEnvironment(ProcessingEnvironment delegate, List<ElementDecoration> elementDecorations, List<TypeMirrorDecoration> typeMirrorDecorations, List<AnnotationMirrorDecoration> annotationMirrorDecorations) {
     this.elementDecorations = elementDecorations;
@@ -116,7 +119,7 @@ public class DecoratedProcessingEnvironment implements ProcessingEnvironment {
       long position = positions.getStartPosition(cu, path.getLeaf());
       long line = cu.getLineMap().getLineNumber(position);
       long column = cu.getLineMap().getColumnNumber(position);
-      return new SourcePosition(path, cu.getSourceFile(), position, line, column);
+      return new SourcePosition(cu.getSourceFile(), position, line, column);
     }
     else {
       return null;
@@ -134,4 +137,31 @@ public class DecoratedProcessingEnvironment implements ProcessingEnvironment {
   public List<AnnotationMirrorDecoration> getAnnotationMirrorDecorations() {
     return annotationMirrorDecorations;
   }
+
+  /**
+   * Records a type variable resolution against this environment.
+   *
+   * @param cacheHit Whether the resolution was served from a cache.
+   */
+  public void recordTypeVariableResolution(boolean cacheHit) {
+    (cacheHit ? this.typeVariableCacheHits : this.typeVariableCacheMisses).incrementAndGet();
+  }
+
+  /**
+   * The number of type variable resolutions against this environment that were served from a cache.
+   *
+   * @return The number of type variable resolutions that were served from a cache.
+   */
+  public long getTypeVariableCacheHits() {
+    return this.typeVariableCacheHits.get();
+  }
+
+  /**
+   * The number of type variable resolutions against this environment that had to be computed.
+   *
+   * @return The number of type variable resolutions that had to be computed.
+   */
+  public long getTypeVariableCacheMisses() {
+    return this.typeVariableCacheMisses.get();
+  }
 }
@@ -20,6 +20,9 @@ import com.sun.source.util.TreePath;
 import javax.tools.JavaFileObject;
 
 /**
+ * The position of an element in its source file. Positions created by the decorated environment don't hold on to the
+ * javac tree of the element, since the tree references the whole compilation unit.
+ *
  * @author Ryan Heaton
  */
 public class SourcePosition implements Comparable<SourcePosition> {
@@ -30,6 +33,14 @@ public class SourcePosition implements Comparable<SourcePosition> {
   private final long line;
   private final long column;
 
+  public SourcePosition(JavaFileObject sourceFile, long position, long line, long column) {
+    this(null, sourceFile, position, line, column);
+  }
+
+  /**
+   * @deprecated The tree path retains the whole compilation unit; use {@link #SourcePosition(JavaFileObject, long, long, long)}.
+   */
+  @Deprecated
   public SourcePosition(TreePath path, JavaFileObject sourceFile, long position, long line, long column) {
     this.path = path;
     this.sourceFile = sourceFile;
@@ -38,6 +49,13 @@ public class SourcePosition implements Comparable<SourcePosition> {
     this.column = column;
   }
 
+  /**
+   * The tree path of the element, if it was supplied to the (deprecated) constructor.
+   *
+   * @return The tree path of the element, or null.
+   * @deprecated Positions created by the decorated environment don't retain the tree path.
+   */
+  @Deprecated
   public TreePath getPath() {
     return path;
   }
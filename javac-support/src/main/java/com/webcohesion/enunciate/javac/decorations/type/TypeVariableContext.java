@@ -15,18 +15,30 @@
  */
 package com.webcohesion.enunciate.javac.decorations.type;
 
+import com.webcohesion.enunciate.javac.decorations.DecoratedProcessingEnvironment;
+import com.webcohesion.enunciate.javac.decorations.TypeMirrorDecorator;
+
 import javax.annotation.processing.ProcessingEnvironment;
-import javax.lang.model.element.Name;
 import javax.lang.model.element.TypeElement;
 import javax.lang.model.element.TypeParameterElement;
 import javax.lang.model.type.DeclaredType;
 import javax.lang.model.type.TypeKind;
 import javax.lang.model.type.TypeMirror;
 import javax.lang.model.type.TypeVariable;
-import java.util.ArrayList;
+import javax.lang.model.util.Types;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
+ * A (persistent) stack of type variable bindings, used to resolve the type variables of members inherited from
+ * generic supertypes. Pushing a level shares the levels below it, and each level caches its resolutions by type
+ * mirror (by identity, since type mirrors don't define equality), since the same types (e.g. the return types of the methods of a generic base resource) tend to be resolved
+ * over and over against the same context.
+ *
  * @author Ryan Heaton
  */
 public class TypeVariableContext {
@@ -34,9 +46,11 @@ public class TypeVariableContext {
   private final TypeVariableContext stack;
   private final List<? extends TypeParameterElement> params;
   private final List<? extends TypeMirror> variables;
+  private volatile Map<String, Integer> paramIndexes;
+  private volatile ConcurrentMap<IdentityKey, TypeMirror> resolutions;
 
   public TypeVariableContext() {
-    this(null, new ArrayList<TypeParameterElement>(), new ArrayList<TypeMirror>());
+    this(null, Collections.<TypeParameterElement>emptyList(), Collections.<TypeMirror>emptyList());
   }
 
   private TypeVariableContext(TypeVariableContext stack, List<? extends TypeParameterElement> params, List<? extends TypeMirror> variables) {
@@ -50,17 +64,53 @@ public class TypeVariableContext {
   }
 
   public TypeMirror resolveTypeVariables(TypeMirror var, ProcessingEnvironment env) {
+    ConcurrentMap<IdentityKey, TypeMirror> resolutions = this.resolutions;
+    if (resolutions == null) {
+      resolutions = new ConcurrentHashMap<IdentityKey, TypeMirror>();
+      this.resolutions = resolutions;
+    }
+
+    IdentityKey key = new IdentityKey(var);
+    TypeMirror resolved = resolutions.get(key);
+    boolean hit = resolved != null;
+    if (!hit) {
+      resolved = resolveTypeVariables(var, env, env.getTypeUtils());
+      resolutions.put(key, resolved);
+    }
+
+    if (env instanceof DecoratedProcessingEnvironment) {
+      ((DecoratedProcessingEnvironment) env).recordTypeVariableResolution(hit);
+    }
+    return resolved;
+  }
+
+  private TypeMirror resolveTypeVariables(TypeMirror var, ProcessingEnvironment env, Types types) {
     TypeMirror resolved = resolveTypeVariable(var);
 
     if (resolved.getKind() == TypeKind.DECLARED) {
       //if we resolved to a declared type, we need to resolve the type arguments, too.
       List<? extends TypeMirror> args = ((DeclaredType) resolved).getTypeArguments();
-      TypeMirror[] resolvedArgs = new TypeMirror[args.size()];
+      TypeMirror[] resolvedArgs = null;
       for (int i = 0; i < args.size(); i++) {
-        resolvedArgs[i] = resolveTypeVariables(args.get(i), env);
+        TypeMirror arg = args.get(i);
+        TypeMirror resolvedArg = resolveTypeVariables(arg, env, types);
+        if (resolvedArgs == null && !types.isSameType(resolvedArg, arg)) {
+          //only allocate the new arguments once one of them actually changes.
+          resolvedArgs = args.toArray(new TypeMirror[args.size()]);
+        }
+
+        if (resolvedArgs != null) {
+          resolvedArgs[i] = resolvedArg;
+        }
       }
 
-      resolved = env.getTypeUtils().getDeclaredType((TypeElement) ((DeclaredType) resolved).asElement(), resolvedArgs);
+      if (resolvedArgs != null) {
+        resolved = types.getDeclaredType((TypeElement) ((DeclaredType) resolved).asElement(), resolvedArgs);
+      }
+      else if (env instanceof DecoratedProcessingEnvironment) {
+        //nothing to resolve, but callers expect a decorated type, same as if it had been rebuilt.
+        resolved = TypeMirrorDecorator.decorate(resolved, (DecoratedProcessingEnvironment) env);
+      }
     }
 
     return resolved;
@@ -68,18 +118,9 @@ public class TypeVariableContext {
 
   public TypeMirror resolveTypeVariable(TypeMirror typeVariable) {
     if (typeVariable.getKind() == TypeKind.TYPEVAR) {
-      int argIndex = -1;
-
-      Name name = ((TypeVariable) typeVariable).asElement().getSimpleName();
-      for (int i = 0; i < this.params.size(); i++) {
-        TypeParameterElement elementParam = this.params.get(i);
-        if (elementParam.getSimpleName().equals(name)) {
-          argIndex = i;
-          break;
-        }
-      }
+      Integer argIndex = paramIndexes().get(((TypeVariable) typeVariable).asElement().getSimpleName().toString());
 
-      if (argIndex < 0 || this.variables.size() != this.params.size()) {
+      if (argIndex == null || this.variables.size() != this.params.size()) {
         //best we can do is get the upper bound. should this maybe be an illegal state?
         typeVariable = ((TypeVariable) typeVariable).getUpperBound();
       }
@@ -100,4 +141,44 @@ public class TypeVariableContext {
 
     return typeVariable;
   }
+
+  private Map<String, Integer> paramIndexes() {
+    Map<String, Integer> paramIndexes = this.paramIndexes;
+    if (paramIndexes == null) {
+      if (this.params.isEmpty()) {
+        paramIndexes = Collections.emptyMap();
+      }
+      else {
+        paramIndexes = new HashMap<String, Integer>(this.params.size() * 2);
+        for (int i = this.params.size() - 1; i >= 0; i--) {
+          //iterate backwards so that the first parameter of a given name wins.
+          paramIndexes.put(this.params.get(i).getSimpleName().toString(), i);
+        }
+      }
+      this.paramIndexes = paramIndexes;
+    }
+    return paramIndexes;
+  }
+
+  /**
+   * Identity-based key. Type mirrors don't define equality, and equal types may still resolve differently against a
+   * context (e.g. type variables of the same name declared by different elements).
+   */
+  private static final class IdentityKey {
+    private final Object value;
+
+    private IdentityKey(Object value) {
+      this.value = value;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return o instanceof IdentityKey && ((IdentityKey) o).value == this.value;
+    }
+
+    @Override
+    public int hashCode() {
+      return System.identityHashCode(this.value);
+    }
+  }
 }
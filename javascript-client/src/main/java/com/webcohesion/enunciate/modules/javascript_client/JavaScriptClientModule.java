@@ -165,6 +165,7 @@ public class JavaScriptClientModule extends BasicGeneratingModule implements Api
     model.put("jsFileName", getSourceFileName());
     model.put("file", new FileDirective(srcDir, this.enunciate.getLogger()));
     model.put("generatedCodeLicense", this.enunciate.getConfiguration().readGeneratedCodeLicenseFile());
+    model.put("lazyHydration", isLazyHydration());
 
     Set<String> facetIncludes = new TreeSet<String>(this.enunciate.getConfiguration().getFacetIncludes());
     facetIncludes.addAll(getFacetIncludes());
@@ -428,6 +429,16 @@ public class JavaScriptClientModule extends BasicGeneratingModule implements Api
     return this.config.getString("[@slug]", this.enunciate.getConfiguration().getSlug());
   }
 
+  /**
+   * Whether the generated classes should keep the raw JSON of their nested objects and convert them only when
+   * they're first accessed.
+   *
+   * @return Whether the generated classes should hydrate their nested objects lazily.
+   */
+  public boolean isLazyHydration() {
+    return this.config.getBoolean("[@lazyHydration]", false);
+  }
+
   /**
    * The package-to-namespace conversions.
    *
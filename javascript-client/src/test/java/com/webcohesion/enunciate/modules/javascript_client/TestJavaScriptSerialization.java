@@ -520,7 +520,129 @@ public class TestJavaScriptSerialization extends TestCase {
   }
 
 
+  /**
+   * measures the time to round-trip a large bus through the generated classes, with and without lazy hydration.
+   */
+  public void testLargeBusBenchmark() throws Exception {
+    if (this.skipJSTests) {
+      System.out.println("JavaScript tests have been disabled.");
+      return;
+    }
+
+    Bus bus = new Bus();
+    bus.setId("large bus");
+    List<Rectangle> windows = new ArrayList<Rectangle>();
+    for (int i = 0; i < 20000; i++) {
+      Rectangle window = new Rectangle();
+      window.setId("window" + i);
+      window.setColor(Color.BLUE);
+      window.setWidth(i);
+      window.setHeight(2);
+      window.setLineStyle(LineStyle.solid);
+      windows.add(window);
+    }
+    bus.setWindows(windows);
+
+    File in = File.createTempFile(bus.getClass().getName() + "Large", ".json", this.tempDir);
+    FileOutputStream fos = new FileOutputStream(in);
+    new JacksonJaxbJsonProvider().writeTo(bus, bus.getClass(), null, null, null, null, fos);
+    fos.close();
+
+    String benchmark = System.getProperty("benchmarkjson.js");
+    if (benchmark == null) {
+      throw new IllegalStateException("The path to the benchmark script must be supplied via property 'benchmarkjson.js'.");
+    }
+
+    runBenchmark(benchmark, bus, in, new File(this.exe.getParentFile(), "api.js"));
+    String lazyApi = System.getProperty("lazy.api.js");
+    if (lazyApi != null) {
+      runBenchmark(benchmark, bus, in, new File(lazyApi));
+    }
+  }
+
+  protected void runBenchmark(String benchmark, Object object, File in, File api) throws Exception {
+    System.out.println("Benchmarking " + api.getAbsolutePath() + "...");
+    Process process = new ProcessBuilder(this.nodeExe, benchmark, packageToModule(object.getClass().getName()), in.getAbsolutePath(), api.getAbsolutePath())
+      .directory(this.exe.getParentFile())
+      .redirectErrorStream(true)
+      .start();
+    BufferedReader procReader = new BufferedReader(new InputStreamReader(process.getInputStream()));
+    String line = procReader.readLine();
+    while (line != null) {
+      System.out.println(line);
+      line = procReader.readLine();
+    }
+    int exitStatus = process.waitFor();
+    assertEquals("node benchmark json failed.", 0, exitStatus);
+  }
+
+  /**
+   * tests that a client generated with lazy hydration round-trips the same JSON as the default client, whether or not
+   * its members are accessed.
+   */
+  public void testLazyHydration() throws Exception {
+    if (this.skipJSTests) {
+      System.out.println("JavaScript tests have been disabled.");
+      return;
+    }
+
+    String lazyApi = System.getProperty("lazy.api.js");
+    if (lazyApi == null) {
+      System.out.println("Lazy hydration tests have been disabled.");
+      return;
+    }
+
+    Bus bus = new Bus();
+    bus.setId("bus id");
+    Label label = new Label();
+    label.setValue("city");
+    bus.setLabels(Arrays.asList(label));
+    Rectangle frame = new Rectangle();
+    frame.setHeight(10);
+    frame.setWidth(50);
+    frame.setColor(Color.YELLOW);
+    frame.setLineStyle(LineStyle.solid);
+    bus.setFrame(frame);
+    Circle wheel = new Circle();
+    wheel.setColor(Color.BLUE);
+    wheel.setRadius(6);
+    bus.setWheels(new Circle[]{wheel, wheel});
+    Rectangle window = new Rectangle();
+    window.setColor(Color.BLUE);
+    window.setWidth(2);
+    window.setHeight(2);
+    bus.setWindows(Arrays.asList(window, window));
+    //the door is left null.
+
+    Bus expected = processThroughJson(bus);
+    assertNull(expected.getDoor());
+    Bus untouched = processThroughJson(bus, new File(lazyApi), false);
+    assertNull(untouched.getDoor());
+    assertEquals(toJson(expected), toJson(untouched));
+    Bus hydrated = processThroughJson(bus, new File(lazyApi), true);
+    assertNull(hydrated.getDoor());
+    assertEquals(toJson(expected), toJson(hydrated));
+    assertEquals(50, hydrated.getFrame().getWidth());
+    assertEquals(2, hydrated.getWheels().length);
+    assertEquals(2, hydrated.getWindows().size());
+  }
+
+  protected String toJson(Object object) throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    new JacksonJaxbJsonProvider().writeTo(object, object.getClass(), null, null, null, null, out);
+    return out.toString("utf-8");
+  }
+
   protected <T> T processThroughJson(T object) throws Exception {
+    return processThroughJson(object, null, false);
+  }
+
+  /**
+   * @param object The object to process.
+   * @param api The api to process it with, or null for the default api.
+   * @param hydrate Whether to access all the members of the object before serializing it.
+   */
+  protected <T> T processThroughJson(T object, File api, boolean hydrate) throws Exception {
     JacksonJaxbJsonProvider provider = new JacksonJaxbJsonProvider();
 
     File in = File.createTempFile(object.getClass().getName() + "In", ".json", this.tempDir);
@@ -528,7 +650,14 @@ public class TestJavaScriptSerialization extends TestCase {
     FileOutputStream fos = new FileOutputStream(in);
     provider.writeTo(object, object.getClass(), null, null, null, null, fos);
     fos.close();
-    Process process = new ProcessBuilder(this.nodeExe, this.exe.getAbsolutePath(), packageToModule(object.getClass().getName()), in.getAbsolutePath(), out.getAbsolutePath())
+    List<String> command = new ArrayList<String>(Arrays.asList(this.nodeExe, this.exe.getAbsolutePath(), packageToModule(object.getClass().getName()), in.getAbsolutePath(), out.getAbsolutePath()));
+    if (api != null) {
+      command.add(api.getAbsolutePath());
+      if (hydrate) {
+        command.add("hydrate");
+      }
+    }
+    Process process = new ProcessBuilder(command)
       .directory(this.exe.getParentFile())
       .redirectErrorStream(true)
       .start();
@@ -0,0 +1,68 @@
+/*
+ * Copyright © 2006-2016 Web Cohesion (info@webcohesion.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+var fs = require('fs');
+var path = require('path');
+
+// Capture the arguments
+var classNamespaceParts = process.argv[2].split('.');
+var infile = process.argv[3];
+var apiFile = path.resolve(process.argv[4] || './api.js');
+var iterations = parseInt(process.argv[5] || '20', 10);
+
+var api = require(apiFile);
+var classRef = getClassReference(api, classNamespaceParts);
+var fileContents = fs.readFileSync(infile, 'utf8');
+
+// Warm up, then time the raw JSON round trip (the baseline) and the round trip through the generated classes.
+measure(1, roundTripRaw);
+measure(1, roundTripClasses);
+var raw = measure(iterations, roundTripRaw);
+var classes = measure(iterations, roundTripClasses);
+
+console.log('raw: ' + raw.toFixed(3) + ' ms');
+console.log('classes: ' + classes.toFixed(3) + ' ms');
+
+function roundTripRaw() {
+  return JSON.stringify(JSON.parse(fileContents));
+}
+
+function roundTripClasses() {
+  return JSON.stringify(new classRef(JSON.parse(fileContents)));
+}
+
+/**
+ * Returns the mean time (in milliseconds) of the specified number of invocations of a function.
+ */
+function measure(iterations, fn) {
+  var start = process.hrtime();
+  for (var i = 0; i < iterations; i++) {
+    fn();
+  }
+  var elapsed = process.hrtime(start);
+  return ((elapsed[0] * 1e3) + (elapsed[1] / 1e6)) / iterations;
+}
+
+/**
+ * Given an array of class namespace parts ['Com', 'Webcohesion', 'Enunciate', 'Line'],
+ * fetch and return a reference to the class
+ */
+function getClassReference(api, classNamespaceParts){
+  var classRef = api;
+  for (var i = 0; i < classNamespaceParts.length; i++) {
+    classRef = classRef[classNamespaceParts[i]];
+  }
+  return classRef;
+}
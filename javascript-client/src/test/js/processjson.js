@@ -14,12 +14,13 @@
  * limitations under the License.
  */
 var fs = require('fs');
-var api = require('./api.js');
 
-// Capture the arguments
+// Capture the arguments (optionally, the api to use and whether to access every member before serializing)
 var classNamespaceParts = process.argv[2].split('.');
 var infile = process.argv[3];
 var outfile = process.argv[4];
+var api = require(process.argv[5] || './api.js');
+var hydrate = process.argv[6] === 'hydrate';
 
 // Load json from a file
 var fileContents = fs.readFileSync(infile, 'utf8');
@@ -28,10 +29,35 @@ var fileContents = fs.readFileSync(infile, 'utf8');
 var parsed = JSON.parse(fileContents);
 var classRef = getClassReference(api, classNamespaceParts);
 var o = new classRef(parsed);
+if (hydrate) {
+  access(o);
+}
 
 // Serialize object to json
 fs.writeFileSync(outfile, JSON.stringify(o));
 
+/**
+ * Access every member of an object (recursively), so that any lazily-converted members are converted.
+ */
+function access(o){
+  if (Array.isArray(o)) {
+    o.forEach(access);
+  }
+  else if (o !== null && typeof o === 'object') {
+    for (var proto = Object.getPrototypeOf(o); proto && proto !== Object.prototype; proto = Object.getPrototypeOf(proto)) {
+      Object.getOwnPropertyNames(proto).forEach(function(name){
+        var descriptor = Object.getOwnPropertyDescriptor(proto, name);
+        if (descriptor.get) {
+          access(o[name]);
+        }
+      });
+    }
+    Object.keys(o).forEach(function(name){
+      access(o[name]);
+    });
+  }
+}
+
 /**
  * Given an array of class namespace parts ['Com', 'Webcohesion', 'Enunciate', 'Line'],
  * fetch and return a reference to the class
@@ -36,6 +36,7 @@ import com.webcohesion.enunciate.modules.jaxb.model.types.XmlTypeFactory;
 import com.webcohesion.enunciate.modules.jaxb.model.util.JAXBUtil;
 import com.webcohesion.enunciate.modules.jaxb.model.util.MapType;
 import com.webcohesion.enunciate.util.OneTimeLogMessage;
+import com.webcohesion.enunciate.util.ReferenceWorklist;
 
 import javax.activation.DataHandler;
 import javax.lang.model.element.Element;
@@ -70,6 +71,14 @@ public class EnunciateJaxbContext extends EnunciateModuleContext implements Synt
   private final Map<String, String> namespacePrefixes;
   private final Map<String, SchemaInfo> schemas;
   private final Map<String, Map<String, XmlSchemaType>> packageSpecifiedTypes;
+  private volatile List<Namespace> frozenNamespaces;
+  private final ReferenceWorklist<TypeDefinition> referenceWorklist = new ReferenceWorklist<TypeDefinition>();
+  private final ReferenceWorklist.ReferenceVisitor<TypeDefinition> typeDefinitionReferenceVisitor = new ReferenceWorklist.ReferenceVisitor<TypeDefinition>() {
+    @Override
+    public void visitReferences(TypeDefinition typeDef, LinkedList<Element> stack) {
+      addReferencedTypeDefinitions(typeDef, stack);
+    }
+  };
 
   public EnunciateJaxbContext(EnunciateContext context, boolean disableExamples) {
     super(context);
@@ -189,9 +198,18 @@ public class EnunciateJaxbContext extends EnunciateModuleContext implements Synt
 
   @Override
   public List<Namespace> getNamespaces() {
-    ArrayList<Namespace> namespaces = new ArrayList<Namespace>();
-    for (SchemaInfo schemaInfo : this.schemas.values()) {
-      namespaces.add(new NamespaceImpl(schemaInfo));
+    List<Namespace> namespaces = this.frozenNamespaces;
+    if (namespaces == null) {
+      namespaces = new ArrayList<Namespace>();
+      for (SchemaInfo schemaInfo : this.schemas.values()) {
+        namespaces.add(new NamespaceImpl(schemaInfo));
+      }
+
+      if (this.context.getApiRegistry().isFrozen()) {
+        //the model is frozen; the namespaces won't change anymore.
+        namespaces = Collections.unmodifiableList(namespaces);
+        this.frozenNamespaces = namespaces;
+      }
     }
     return namespaces;
   }
@@ -681,60 +699,78 @@ public class EnunciateJaxbContext extends EnunciateModuleContext implements Synt
           this.schemas.put(namespace, schemaInfo);
         }
         schemaInfo.getTypeDefinitions().add(typeDef);
+      }
+      finally {
+        stack.pop();
+      }
 
-        addSeeAlsoTypeDefinitions(typeDef, stack);
-
-        for (com.webcohesion.enunciate.modules.jaxb.model.Element element : typeDef.getElements()) {
-          addReferencedTypeDefinitions(element, stack);
+      //walk the references iteratively (instead of recursively) to avoid overflowing the stack on deep models.
+      this.referenceWorklist.enqueue(typeDef.getQualifiedName().toString(), typeDef, stack);
+      this.referenceWorklist.drain(this.typeDefinitionReferenceVisitor);
+    }
+  }
 
-          ImplicitSchemaElement implicitElement = getImplicitElement(element);
-          if (implicitElement != null) {
-            String implicitNamespace = element.isWrapped() ? element.getWrapperNamespace() : element.getNamespace();
-            SchemaInfo referencedSchemaInfo = schemas.get(implicitNamespace);
-            if (referencedSchemaInfo == null) {
-              referencedSchemaInfo = new SchemaInfo(this);
-              referencedSchemaInfo.setId(addNamespace(implicitNamespace));
-              referencedSchemaInfo.setNamespace(implicitNamespace);
-              schemas.put(implicitNamespace, referencedSchemaInfo);
-            }
-            referencedSchemaInfo.getImplicitSchemaElements().add(implicitElement);
+  /**
+   * Add the type definitions referenced by the specified type definition.
+   *
+   * @param typeDef The type definition.
+   * @param stack The context stack.
+   */
+  protected void addReferencedTypeDefinitions(TypeDefinition typeDef, LinkedList<Element> stack) {
+    stack.push(typeDef);
+    try {
+      addSeeAlsoTypeDefinitions(typeDef, stack);
+
+      for (com.webcohesion.enunciate.modules.jaxb.model.Element element : typeDef.getElements()) {
+        addReferencedTypeDefinitions(element, stack);
+
+        ImplicitSchemaElement implicitElement = getImplicitElement(element);
+        if (implicitElement != null) {
+          String implicitNamespace = element.isWrapped() ? element.getWrapperNamespace() : element.getNamespace();
+          SchemaInfo referencedSchemaInfo = schemas.get(implicitNamespace);
+          if (referencedSchemaInfo == null) {
+            referencedSchemaInfo = new SchemaInfo(this);
+            referencedSchemaInfo.setId(addNamespace(implicitNamespace));
+            referencedSchemaInfo.setNamespace(implicitNamespace);
+            schemas.put(implicitNamespace, referencedSchemaInfo);
           }
+          referencedSchemaInfo.getImplicitSchemaElements().add(implicitElement);
         }
+      }
 
-        for (Attribute attribute : typeDef.getAttributes()) {
-          addReferencedTypeDefinitions(attribute, stack);
-          ImplicitSchemaAttribute implicitAttribute = getImplicitAttribute(attribute);
-          if (implicitAttribute != null) {
-            String implicitAttributeNamespace = attribute.getNamespace();
-            SchemaInfo referencedSchemaInfo = schemas.get(implicitAttributeNamespace);
-            if (referencedSchemaInfo == null) {
-              referencedSchemaInfo = new SchemaInfo(this);
-              referencedSchemaInfo.setId(addNamespace(implicitAttributeNamespace));
-              referencedSchemaInfo.setNamespace(implicitAttributeNamespace);
-              schemas.put(implicitAttributeNamespace, referencedSchemaInfo);
-            }
-            referencedSchemaInfo.getImplicitSchemaAttributes().add(implicitAttribute);
+      for (Attribute attribute : typeDef.getAttributes()) {
+        addReferencedTypeDefinitions(attribute, stack);
+        ImplicitSchemaAttribute implicitAttribute = getImplicitAttribute(attribute);
+        if (implicitAttribute != null) {
+          String implicitAttributeNamespace = attribute.getNamespace();
+          SchemaInfo referencedSchemaInfo = schemas.get(implicitAttributeNamespace);
+          if (referencedSchemaInfo == null) {
+            referencedSchemaInfo = new SchemaInfo(this);
+            referencedSchemaInfo.setId(addNamespace(implicitAttributeNamespace));
+            referencedSchemaInfo.setNamespace(implicitAttributeNamespace);
+            schemas.put(implicitAttributeNamespace, referencedSchemaInfo);
           }
+          referencedSchemaInfo.getImplicitSchemaAttributes().add(implicitAttribute);
         }
+      }
 
-        if (typeDef.getAnyAttributeQNameEnumRef() != null) {
-          addReferencedTypeDefinitions(typeDef.getAnyAttributeQNameEnumRef(), stack);
-        }
-
-        Value value = typeDef.getValue();
-        if (value != null) {
-          addReferencedTypeDefinitions(value, stack);
-        }
+      if (typeDef.getAnyAttributeQNameEnumRef() != null) {
+        addReferencedTypeDefinitions(typeDef.getAnyAttributeQNameEnumRef(), stack);
+      }
 
-        TypeMirror superclass = typeDef.getSuperclass();
-        if (!typeDef.isEnum() && superclass != null && superclass.getKind() != TypeKind.NONE) {
-          addReferencedTypeDefinitions(superclass, stack);
-        }
+      Value value = typeDef.getValue();
+      if (value != null) {
+        addReferencedTypeDefinitions(value, stack);
       }
-      finally {
-        stack.pop();
+
+      TypeMirror superclass = typeDef.getSuperclass();
+      if (!typeDef.isEnum() && superclass != null && superclass.getKind() != TypeKind.NONE) {
+        addReferencedTypeDefinitions(superclass, stack);
       }
     }
+    finally {
+      stack.pop();
+    }
   }
 
   protected void addReferencedTypeDefinitions(Accessor accessor, LinkedList<Element> stack) {
@@ -935,12 +971,11 @@ public class EnunciateJaxbContext extends EnunciateModuleContext implements Synt
           return null;
         }
 
-        if (context.recursionStack.contains(declaration)) {
+        if (!context.recursionSet.add(qualifiedName)) {
           //we're already visiting this class...
           return null;
         }
 
-        context.recursionStack.push(declaration);
         try {
           MapType mapType = MapType.findMapType(declaredType, EnunciateJaxbContext.this);
           if (mapType == null) {
@@ -961,7 +996,7 @@ public class EnunciateJaxbContext extends EnunciateModuleContext implements Synt
           }
         }
         finally {
-          context.recursionStack.pop();
+          context.recursionSet.remove(qualifiedName);
         }
       }
 
@@ -997,11 +1032,11 @@ public class EnunciateJaxbContext extends EnunciateModuleContext implements Synt
 
   private static class ReferenceContext {
     LinkedList<Element> referenceStack;
-    LinkedList<Element> recursionStack;
+    Set<String> recursionSet;
 
     public ReferenceContext(LinkedList<Element> referenceStack) {
       this.referenceStack = referenceStack;
-      recursionStack = new LinkedList<Element>();
+      recursionSet = new HashSet<String>();
     }
   }
 }
@@ -26,6 +26,7 @@ import com.webcohesion.enunciate.modules.jaxb.model.TypeDefinition;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -34,6 +35,7 @@ import java.util.List;
 public class NamespaceImpl implements Namespace {
 
   private final SchemaInfo schema;
+  private volatile List<DataType> frozenTypes;
 
   public NamespaceImpl(SchemaInfo schema) {
     this.schema = schema;
@@ -52,6 +54,19 @@ public class NamespaceImpl implements Namespace {
 
   @Override
   public List<? extends DataType> getTypes() {
+    List<DataType> types = this.frozenTypes;
+    if (types == null) {
+      types = gatherTypes();
+      if (this.schema.getContext().getContext().getApiRegistry().isFrozen()) {
+        //the model is frozen; the types won't change anymore.
+        types = Collections.unmodifiableList(types);
+        this.frozenTypes = types;
+      }
+    }
+    return types;
+  }
+
+  private List<DataType> gatherTypes() {
     FacetFilter facetFilter = this.schema.getContext().getContext().getConfiguration().getFacetFilter();
 
     ArrayList<DataType> dataTypes = new ArrayList<DataType>();
@@ -17,6 +17,7 @@ package com.webcohesion.enunciate.modules.jaxb.model;
 
 
 import com.webcohesion.enunciate.facets.Facet;
+import com.webcohesion.enunciate.facets.FacetSet;
 import com.webcohesion.enunciate.facets.HasFacets;
 import com.webcohesion.enunciate.javac.decorations.element.DecoratedTypeElement;
 import com.webcohesion.enunciate.metadata.ClientName;
@@ -27,7 +28,6 @@ import javax.xml.bind.annotation.XmlRootElement;
 import javax.xml.namespace.QName;
 import java.beans.Introspector;
 import java.util.Set;
-import java.util.TreeSet;
 
 /**
  * A class declaration decorated so as to be able to describe itself as an XML-Schema root element declaration.
@@ -39,7 +39,7 @@ public class RootElementDeclaration extends DecoratedTypeElement implements Elem
   private final XmlRootElement rootElement;
   private final TypeDefinition typeDefinition;
   private final Schema schema;
-  private final Set<Facet> facets = new TreeSet<Facet>();
+  private final Set<Facet> facets = new FacetSet();
 
   public RootElementDeclaration(TypeElement delegate, TypeDefinition typeDefinition, EnunciateJaxbContext context) {
     super(delegate, context.getContext().getProcessingEnvironment());
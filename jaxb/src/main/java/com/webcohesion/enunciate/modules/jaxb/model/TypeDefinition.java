@@ -17,6 +17,7 @@ package com.webcohesion.enunciate.modules.jaxb.model;
 
 import com.webcohesion.enunciate.EnunciateException;
 import com.webcohesion.enunciate.facets.Facet;
+import com.webcohesion.enunciate.facets.FacetSet;
 import com.webcohesion.enunciate.facets.HasFacets;
 import com.webcohesion.enunciate.javac.decorations.Annotations;
 import com.webcohesion.enunciate.javac.decorations.TypeMirrorDecorator;
@@ -59,7 +60,7 @@ public abstract class TypeDefinition extends DecoratedTypeElement implements Has
   private final TypeMirror anyAttributeQNameEnumRef;
   private final AnyElement anyElement;
   private final LinkedList<javax.lang.model.element.Element> referencedFrom = new LinkedList<javax.lang.model.element.Element>();
-  private final Set<Facet> facets = new TreeSet<Facet>();
+  private final Set<Facet> facets = new FacetSet();
   protected final EnunciateJaxbContext context;
 
   protected TypeDefinition(TypeElement delegate, EnunciateJaxbContext context) {
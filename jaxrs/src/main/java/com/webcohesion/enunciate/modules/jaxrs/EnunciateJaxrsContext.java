@@ -62,6 +62,7 @@ public class EnunciateJaxrsContext extends EnunciateModuleContext implements Res
   private PathSortStrategy pathSortStrategy = PathSortStrategy.breadth_first;
   private InterfaceDescriptionFile wadlFile = null;
   private final boolean disableExamples;
+  private volatile List<ResourceGroup> frozenResourceGroups;
 
   public EnunciateJaxrsContext(EnunciateContext context, boolean disableExamples) {
     super(context);
@@ -318,6 +319,19 @@ public class EnunciateJaxrsContext extends EnunciateModuleContext implements Res
 
   @Override
   public List<ResourceGroup> getResourceGroups() {
+    List<ResourceGroup> resourceGroups = this.frozenResourceGroups;
+    if (resourceGroups == null) {
+      resourceGroups = gatherResourceGroups();
+      if (this.context.getApiRegistry().isFrozen()) {
+        //the model is frozen; the resource groups won't change anymore.
+        resourceGroups = Collections.unmodifiableList(resourceGroups);
+        this.frozenResourceGroups = resourceGroups;
+      }
+    }
+    return resourceGroups;
+  }
+
+  protected List<ResourceGroup> gatherResourceGroups() {
     List<ResourceGroup> resourceGroups;
     if (this.groupingStrategy == GroupingStrategy.path) {
       //group resources by path.
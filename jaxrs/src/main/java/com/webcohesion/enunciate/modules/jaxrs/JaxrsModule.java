@@ -178,6 +178,7 @@ public class JaxrsModule extends BasicProviderModule implements TypeDetectingMod
 
     if (jaxrsContext.getRootResources().size() > 0) {
       this.enunciate.addArtifact(new JaxrsRootResourceClassListArtifact(this.jaxrsContext));
+      this.enunciate.addArtifact(new JaxrsRouteTableArtifact(this.jaxrsContext));
       this.apiRegistry.getResourceApis().add(jaxrsContext);
     }
 
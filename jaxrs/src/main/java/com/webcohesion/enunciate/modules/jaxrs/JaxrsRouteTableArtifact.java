@@ -0,0 +1,114 @@
+/**
+ * Copyright © 2006-2016 Web Cohesion (info@webcohesion.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webcohesion.enunciate.modules.jaxrs;
+
+import com.webcohesion.enunciate.Enunciate;
+import com.webcohesion.enunciate.api.resources.*;
+import com.webcohesion.enunciate.artifacts.BaseArtifact;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * The route table of the documented resource methods, used by the runtime API metrics filter to match requests to
+ * operations. Each line is tab-separated: the HTTP method, the path template, the operation id (the same as the
+ * documentation's), the produced media types and the consumed media types.
+ *
+ * @author Ryan Heaton
+ */
+public class JaxrsRouteTableArtifact extends BaseArtifact {
+
+  private final EnunciateJaxrsContext jaxrsContext;
+  private final Date created = new Date();
+
+  public JaxrsRouteTableArtifact(EnunciateJaxrsContext jaxrsContext) {
+    super(JaxrsModule.NAME, "jaxrs-routes.list");
+    this.jaxrsContext = jaxrsContext;
+    setBelongsOnServerSideClasspath(true);
+  }
+
+  @Override
+  public String getName() {
+    return "jaxrs-routes.list";
+  }
+
+  @Override
+  public String getDescription() {
+    return "A plain text file that contains the route table of all documented JAX-RS resource methods in the current project.";
+  }
+
+  @Override
+  public boolean isPublic() {
+    return false;
+  }
+
+  @Override
+  public Date getCreated() {
+    return this.created;
+  }
+
+  @Override
+  public void exportTo(File fileOrDirectory, Enunciate enunciate) throws IOException {
+    Writer out = new OutputStreamWriter(new FileOutputStream(fileOrDirectory.isDirectory() ? new File(fileOrDirectory, getName()) : fileOrDirectory), "utf-8");
+    try {
+      for (ResourceGroup group : this.jaxrsContext.getResourceGroups()) {
+        String contextPath = group.getRelativeContextPath();
+        contextPath = contextPath == null || contextPath.isEmpty() ? "" : "/" + contextPath;
+        for (Resource resource : group.getResources()) {
+          for (Method method : resource.getMethods()) {
+            out.write(method.getHttpMethod());
+            out.write('\t');
+            out.write(contextPath + resource.getPath());
+            out.write('\t');
+            out.write(method.getSlug());
+            out.write('\t');
+            writeMediaTypes(method.getResponseEntity(), out);
+            out.write('\t');
+            writeMediaTypes(method.getRequestEntity(), out);
+            out.write('\n');
+          }
+        }
+      }
+    }
+    finally {
+      out.close();
+    }
+  }
+
+  private void writeMediaTypes(Entity entity, Writer out) throws IOException {
+    List<? extends MediaTypeDescriptor> mediaTypes = entity == null ? null : entity.getMediaTypes();
+    if (mediaTypes != null) {
+      boolean first = true;
+      for (MediaTypeDescriptor mediaType : mediaTypes) {
+        if (!first) {
+          out.write(',');
+        }
+        out.write(mediaType.getMediaType());
+        first = false;
+      }
+    }
+  }
+
+  @Override
+  public long getSize() {
+    return -1;
+  }
+}
@@ -16,6 +16,7 @@
 package com.webcohesion.enunciate.modules.jaxrs.model;
 
 import com.webcohesion.enunciate.facets.Facet;
+import com.webcohesion.enunciate.facets.FacetSet;
 import com.webcohesion.enunciate.facets.HasFacets;
 import com.webcohesion.enunciate.javac.decorations.element.DecoratedTypeElement;
 import com.webcohesion.enunciate.javac.decorations.element.PropertyElement;
@@ -46,12 +47,13 @@ public abstract class Resource extends DecoratedTypeElement implements HasFacets
   private final EnunciateJaxrsContext context;
   private final String path;
   private final List<PathSegment> pathComponents;
+  private volatile List<PathSegment> fullPathComponents;
   private final Set<com.webcohesion.enunciate.modules.jaxrs.model.util.MediaType> consumesMime;
   private final Set<com.webcohesion.enunciate.modules.jaxrs.model.util.MediaType> producesMime;
   private final Set<ResourceParameter> resourceParameters;
   private final List<ResourceMethod> resourceMethods;
   private final List<SubResourceLocator> resourceLocators;
-  private final Set<Facet> facets = new TreeSet<Facet>();
+  private final Set<Facet> facets = new FacetSet();
 
   protected Resource(TypeElement delegate, String path, EnunciateJaxrsContext context) {
     super(delegate, context.getContext().getProcessingEnvironment());
@@ -351,12 +353,18 @@ public abstract class Resource extends DecoratedTypeElement implements HasFacets
    * @return The path components for this resource.
    */
   public List<PathSegment> getPathComponents() {
-    List<PathSegment> components = new ArrayList<PathSegment>();
-    Resource parent = getParent();
-    if (parent != null) {
-      components.addAll(parent.getPathComponents());
+    List<PathSegment> components = this.fullPathComponents;
+    if (components == null) {
+      //the model is fixed once it's built, so the full path is computed once.
+      components = new ArrayList<PathSegment>();
+      Resource parent = getParent();
+      if (parent != null) {
+        components.addAll(parent.getPathComponents());
+      }
+      components.addAll(this.pathComponents);
+      components = Collections.unmodifiableList(components);
+      this.fullPathComponents = components;
     }
-    components.addAll(this.pathComponents);
     return components;
   }
 
@@ -17,6 +17,7 @@ package com.webcohesion.enunciate.modules.jaxrs.model;
 
 import com.webcohesion.enunciate.EnunciateException;
 import com.webcohesion.enunciate.facets.Facet;
+import com.webcohesion.enunciate.facets.FacetSet;
 import com.webcohesion.enunciate.facets.HasFacets;
 import com.webcohesion.enunciate.javac.decorations.Annotations;
 import com.webcohesion.enunciate.javac.decorations.TypeMirrorDecorator;
@@ -70,8 +71,10 @@ public class ResourceMethod extends DecoratedExecutableElement implements HasFac
   private final List<? extends ResponseCode> warnings;
   private final Map<String, String> responseHeaders;
   private final ResourceRepresentationMetadata representationMetadata;
-  private final Set<Facet> facets = new TreeSet<Facet>();
+  private final Set<Facet> facets = new FacetSet();
   private final List<PathSegment> pathComponents;
+  private volatile List<PathSegment> fullPathComponents;
+  private volatile String fullpath;
 
   public ResourceMethod(ExecutableElement delegate, Resource parent, TypeVariableContext variableContext, EnunciateJaxrsContext context) {
     super(delegate, context.getContext().getProcessingEnvironment());
@@ -712,12 +715,18 @@ public class ResourceMethod extends DecoratedExecutableElement implements HasFac
    * @return The path components.
    */
   public List<PathSegment> getPathComponents() {
-    List<PathSegment> components = new ArrayList<PathSegment>();
-    Resource parent = getParent();
-    if (parent != null) {
-      components.addAll(parent.getPathComponents());
+    List<PathSegment> components = this.fullPathComponents;
+    if (components == null) {
+      //the model is fixed once it's built, so the full path is computed once.
+      components = new ArrayList<PathSegment>();
+      Resource parent = getParent();
+      if (parent != null) {
+        components.addAll(parent.getPathComponents());
+      }
+      components.addAll(this.pathComponents);
+      components = Collections.unmodifiableList(components);
+      this.fullPathComponents = components;
     }
-    components.addAll(this.pathComponents);
     return components;
   }
 
@@ -727,12 +736,17 @@ public class ResourceMethod extends DecoratedExecutableElement implements HasFac
    * @return the full URI path to this resource method.
    */
   public String getFullpath() {
-    StringBuilder builder = new StringBuilder();
-    for (PathSegment component : getPathComponents()) {
-      builder.append('/').append(component.getValue());
+    String fullpath = this.fullpath;
+    if (fullpath == null) {
+      StringBuilder builder = new StringBuilder();
+      for (PathSegment component : getPathComponents()) {
+        builder.append('/').append(component.getValue());
+      }
+      fullpath = builder.toString();
+      this.fullpath = fullpath;
     }
 
-    return builder.toString();
+    return fullpath;
   }
 
   /**
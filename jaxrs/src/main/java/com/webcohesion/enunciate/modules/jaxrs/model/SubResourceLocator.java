@@ -38,6 +38,7 @@ public class SubResourceLocator extends DecoratedExecutableElement implements Pa
 
   private final Path path;
   private final List<PathSegment> pathComponents;
+  private volatile List<PathSegment> fullPathComponents;
   private final SubResource resource;
   private final Resource parent;
   private final List<ResourceParameter> resourceParameters;
@@ -115,12 +116,18 @@ public class SubResourceLocator extends DecoratedExecutableElement implements Pa
 
   @Override
   public List<PathSegment> getPathComponents() {
-    List<PathSegment> components = new ArrayList<PathSegment>();
-    Resource parent = getParent();
-    if (parent != null) {
-      components.addAll(parent.getPathComponents());
+    List<PathSegment> components = this.fullPathComponents;
+    if (components == null) {
+      //the model is fixed once it's built, so the full path is computed once.
+      components = new ArrayList<PathSegment>();
+      Resource parent = getParent();
+      if (parent != null) {
+        components.addAll(parent.getPathComponents());
+      }
+      components.addAll(this.pathComponents);
+      components = Collections.unmodifiableList(components);
+      this.fullPathComponents = components;
     }
-    components.addAll(this.pathComponents);
     return components;
   }
 
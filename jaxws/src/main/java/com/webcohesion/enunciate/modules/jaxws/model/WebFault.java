@@ -17,6 +17,7 @@ package com.webcohesion.enunciate.modules.jaxws.model;
 
 import com.webcohesion.enunciate.EnunciateException;
 import com.webcohesion.enunciate.facets.Facet;
+import com.webcohesion.enunciate.facets.FacetSet;
 import com.webcohesion.enunciate.facets.HasFacets;
 import com.webcohesion.enunciate.javac.decorations.TypeMirrorDecorator;
 import com.webcohesion.enunciate.javac.decorations.element.DecoratedTypeElement;
@@ -57,7 +58,7 @@ public class WebFault extends DecoratedTypeElement implements WebMessage, WebMes
 
   private final javax.xml.ws.WebFault annotation;
   private final DeclaredType explicitFaultBeanType;
-  private final Set<Facet> facets = new TreeSet<Facet>();
+  private final Set<Facet> facets = new FacetSet();
   private final EnunciateJaxwsContext context;
   private final DecoratedTypeMirror reference;
 
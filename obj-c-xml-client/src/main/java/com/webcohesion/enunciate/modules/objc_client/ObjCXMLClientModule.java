@@ -219,11 +219,12 @@ public class ObjCXMLClientModule extends BasicGeneratingModule implements ApiFea
 
     model.put("isFacetExcluded", new IsFacetExcludedMethod(facetFilter));
 
-    if (!isUpToDateWithSources(srcDir)) {
+    if (!isUpToDateWithSources(srcDir) && !restoreFromBuildCache(srcDir)) {
       debug("Generating the C data structures and (de)serialization functions...");
       URL apiTemplate = getTemplateURL("api.fmt");
       try {
         processTemplate(apiTemplate, model);
+        debug("Class name conversions: %s cache hits, %s misses (%.1f%% hit rate).", classnameFor.getCacheHits(), classnameFor.getCacheMisses(), classnameFor.getCacheHitRate() * 100);
       }
       catch (IOException e) {
         throw new EnunciateException(e);
@@ -231,6 +232,7 @@ public class ObjCXMLClientModule extends BasicGeneratingModule implements ApiFea
       catch (TemplateException e) {
         throw new EnunciateException(e);
       }
+      storeInBuildCache(srcDir);
     }
     else {
       info("Skipping C code generation because everything appears up-to-date.");
@@ -169,6 +169,7 @@ public class PHPJSONClientModule extends BasicGeneratingModule implements ApiFea
     model.put("phpFileName", getSourceFileName());
     model.put("file", new FileDirective(srcDir, this.enunciate.getLogger()));
     model.put("generatedCodeLicense", this.enunciate.getConfiguration().readGeneratedCodeLicenseFile());
+    model.put("lazyHydration", isLazyHydration());
 
     Set<String> facetIncludes = new TreeSet<String>(this.enunciate.getConfiguration().getFacetIncludes());
     facetIncludes.addAll(getFacetIncludes());
@@ -178,7 +179,7 @@ public class PHPJSONClientModule extends BasicGeneratingModule implements ApiFea
 
     model.put("isFacetExcluded", new IsFacetExcludedMethod(facetFilter));
 
-    if (!isUpToDateWithSources(srcDir)) {
+    if (!isUpToDateWithSources(srcDir) && !restoreFromBuildCache(srcDir)) {
       debug("Generating the PHP data classes...");
       URL apiTemplate = isSingleFilePerClass() ? getTemplateURL("api-multiple-files.fmt") : getTemplateURL("api.fmt");
       try {
@@ -190,6 +191,7 @@ public class PHPJSONClientModule extends BasicGeneratingModule implements ApiFea
       catch (TemplateException e) {
         throw new EnunciateException(e);
       }
+      storeInBuildCache(srcDir);
     }
     else {
       info("Skipping PHP code generation because everything appears up-to-date.");
@@ -199,14 +201,18 @@ public class PHPJSONClientModule extends BasicGeneratingModule implements ApiFea
     packageDir.mkdirs();
 
     File bundle = new File(packageDir, getBundleFileName());
-    boolean anyFiles = bundle.exists();
-    if (!isUpToDateWithSources(packageDir)) {
+    boolean anyFiles;
+    if (!isUpToDateWithSources(packageDir) && !restoreFromBuildCache(packageDir)) {
       try {
         anyFiles = enunciate.zip(bundle, srcDir);
       }
       catch (IOException e) {
         throw new EnunciateException(e);
       }
+      storeInBuildCache(packageDir);
+    }
+    else {
+      anyFiles = bundle.exists();
     }
 
     if (anyFiles) {
@@ -497,6 +503,16 @@ public class PHPJSONClientModule extends BasicGeneratingModule implements ApiFea
     return this.config.getBoolean("[@singleFilePerClass]", false);
   }
 
+  /**
+   * Whether the generated classes should hold on to the (parsed) JSON hash and create their nested objects only when
+   * they're first accessed. Default: false (all nested objects are created when the object is initialized).
+   *
+   * @return Whether the generated classes should hydrate their nested objects lazily.
+   */
+  public boolean isLazyHydration() {
+    return this.config.getBoolean("[@lazyHydration]", false);
+  }
+
   private static final class ExtensionDepthComparator implements Comparator<DecoratedTypeElement> {
     public int compare(DecoratedTypeElement t1, DecoratedTypeElement t2) {
       int depth1 = 0;
@@ -520,7 +520,111 @@ public class TestPHPJsonSerialization extends TestCase {
   }
 
 
+  /**
+   * tests that a client generated with lazy hydration round-trips the same JSON as the default client, whether or not
+   * its members are accessed.
+   */
+  public void testLazyHydration() throws Exception {
+    if (this.skipPHPTests) {
+      System.out.println("PHP tests have been disabled.");
+      return;
+    }
+
+    String lazyApi = System.getProperty("lazy.api.php");
+    if (lazyApi == null) {
+      System.out.println("Lazy hydration tests have been disabled.");
+      return;
+    }
+
+    Bus bus = new Bus();
+    bus.setId("bus id");
+    Label label = new Label();
+    label.setValue("city");
+    bus.setLabels(Arrays.asList(label));
+    Rectangle frame = new Rectangle();
+    frame.setHeight(10);
+    frame.setWidth(50);
+    frame.setColor(Color.YELLOW);
+    frame.setLineStyle(LineStyle.solid);
+    bus.setFrame(frame);
+    Circle wheel = new Circle();
+    wheel.setColor(Color.BLUE);
+    wheel.setRadius(6);
+    bus.setWheels(new Circle[]{wheel, wheel});
+    Rectangle window = new Rectangle();
+    window.setColor(Color.BLUE);
+    window.setWidth(2);
+    window.setHeight(2);
+    bus.setWindows(Arrays.asList(window, window));
+    //the door is left null.
+
+    Bus expected = processThroughJson(bus);
+    assertNull(expected.getDoor());
+    Bus untouched = processThroughJson(bus, new File(lazyApi), false);
+    assertNull(untouched.getDoor());
+    assertEquals(toJson(expected), toJson(untouched));
+    Bus hydrated = processThroughJson(bus, new File(lazyApi), true);
+    assertNull(hydrated.getDoor());
+    assertEquals(toJson(expected), toJson(hydrated));
+    assertEquals(50, hydrated.getFrame().getWidth());
+    assertEquals(2, hydrated.getWheels().length);
+    assertEquals(2, hydrated.getWindows().size());
+  }
+
+  /**
+   * tests that a lazily-created member that's never accessed doesn't write properties its class doesn't know about.
+   */
+  public void testLazyHydrationDropsUnknownProperties() throws Exception {
+    if (this.skipPHPTests) {
+      System.out.println("PHP tests have been disabled.");
+      return;
+    }
+
+    String lazyApi = System.getProperty("lazy.api.php");
+    if (lazyApi == null) {
+      System.out.println("Lazy hydration tests have been disabled.");
+      return;
+    }
+
+    Bus bus = new Bus();
+    bus.setId("bus id");
+    Rectangle frame = new Rectangle();
+    frame.setHeight(10);
+    frame.setWidth(50);
+    bus.setFrame(frame);
+
+    String json = toJson(bus);
+    assertTrue(json.contains("\"frame\":{"));
+    File in = File.createTempFile("busIn", ".json", this.tempDir);
+    File out = File.createTempFile("busOut", ".json", this.tempDir);
+    FileOutputStream fos = new FileOutputStream(in);
+    fos.write(json.replace("\"frame\":{", "\"frame\":{\"unknownProperty\":\"value\",").getBytes("utf-8"));
+    fos.close();
+    processJson(Bus.class.getName(), in, out, new File(lazyApi), false);
+
+    FileInputStream fis = new FileInputStream(out);
+    Bus untouched = (Bus) new JacksonJaxbJsonProvider().readFrom((Class) Bus.class, Bus.class, null, null, null, fis);
+    fis.close();
+    assertEquals(toJson(bus), toJson(untouched));
+    assertEquals(50, untouched.getFrame().getWidth());
+  }
+
+  protected String toJson(Object object) throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    new JacksonJaxbJsonProvider().writeTo(object, object.getClass(), null, null, null, null, out);
+    return out.toString("utf-8");
+  }
+
   protected <T> T processThroughJson(T object) throws Exception {
+    return processThroughJson(object, null, false);
+  }
+
+  /**
+   * @param object The object to process.
+   * @param api The api to process it with, or null for the default api.
+   * @param hydrate Whether to call all the getters of the object before serializing it.
+   */
+  protected <T> T processThroughJson(T object, File api, boolean hydrate) throws Exception {
     JacksonJaxbJsonProvider provider = new JacksonJaxbJsonProvider();
 
     File in = File.createTempFile(object.getClass().getName() + "In", ".json", this.tempDir);
@@ -528,7 +632,28 @@ public class TestPHPJsonSerialization extends TestCase {
     FileOutputStream fos = new FileOutputStream(in);
     provider.writeTo(object, object.getClass(), null, null, null, null, fos);
     fos.close();
-    Process process = new ProcessBuilder(this.phpExe, this.exe.getAbsolutePath(), packageToModule(object.getClass().getName()), in.getAbsolutePath(), out.getAbsolutePath())
+    processJson(object.getClass().getName(), in, out, api, hydrate);
+
+    FileInputStream fis = new FileInputStream(out);
+    return (T) provider.readFrom((Class<Object>) object.getClass(), object.getClass(), null, null, null, fis);
+  }
+
+  /**
+   * @param classname The name of the class to process the JSON as.
+   * @param in The JSON to process.
+   * @param out The file to write the processed JSON to.
+   * @param api The api to process it with, or null for the default api.
+   * @param hydrate Whether to call all the getters of the object before serializing it.
+   */
+  protected void processJson(String classname, File in, File out, File api, boolean hydrate) throws Exception {
+    List<String> command = new ArrayList<String>(Arrays.asList(this.phpExe, this.exe.getAbsolutePath(), packageToModule(classname), in.getAbsolutePath(), out.getAbsolutePath()));
+    if (api != null) {
+      command.add(api.getAbsolutePath());
+      if (hydrate) {
+        command.add("hydrate");
+      }
+    }
+    Process process = new ProcessBuilder(command)
       .directory(this.exe.getParentFile())
       .redirectErrorStream(true)
       .start();
@@ -540,9 +665,6 @@ public class TestPHPJsonSerialization extends TestCase {
     }
     int exitStatus = process.waitFor();
     assertEquals("php process json failed.", 0, exitStatus);
-
-    FileInputStream fis = new FileInputStream(out);
-    return (T) provider.readFrom((Class<Object>) object.getClass(), object.getClass(), null, null, null, fis);
   }
 
   protected String packageToModule(String pckg) {
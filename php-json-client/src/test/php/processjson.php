@@ -15,12 +15,32 @@
  * limitations under the License.
  */
 
-  include('api.php');
-
-  // Capture the arguments
+  // Capture the arguments (optionally, the api to use and whether to access every member before serializing)
   $classname = str_replace("::", "\\", $argv[1]);
   $infile = $argv[2];
   $outfile = $argv[3];
+  $api = isset($argv[4]) ? $argv[4] : 'api.php';
+  $hydrate = isset($argv[5]) && $argv[5] == 'hydrate';
+
+  include($api);
+
+  /**
+   * Call every getter of an object (recursively), so that any lazily-created members are created.
+   */
+  function access($o) {
+    if (is_array($o)) {
+      foreach ($o as $x) {
+        access($x);
+      }
+    }
+    else if (is_object($o) && method_exists($o, 'toArray')) {
+      foreach (get_class_methods($o) as $method) {
+        if (strpos($method, 'get') === 0) {
+          access($o->$method());
+        }
+      }
+    }
+  }
 
   // Load json from a file
   $filecontents = file_get_contents($infile);
@@ -29,6 +49,9 @@
   $parsed = json_decode($filecontents, true);
   eval("\$o = new $classname();");
   $o->initFromArray($parsed);
+  if ($hydrate) {
+    access($o);
+  }
   
   // Serialize object to json
   file_put_contents($outfile, $o->toJson());
@@ -177,7 +177,7 @@ public class PHPXMLClientModule extends BasicGeneratingModule implements ApiFeat
 
     model.put("isFacetExcluded", new IsFacetExcludedMethod(facetFilter));
 
-    if (!isUpToDateWithSources(srcDir)) {
+    if (!isUpToDateWithSources(srcDir) && !restoreFromBuildCache(srcDir)) {
       debug("Generating the PHP XML data classes...");
       URL apiTemplate = isSingleFilePerClass() ? getTemplateURL("api-multiple-files.fmt") : getTemplateURL("api.fmt");
       try {
@@ -189,6 +189,7 @@ public class PHPXMLClientModule extends BasicGeneratingModule implements ApiFeat
       catch (TemplateException e) {
         throw new EnunciateException(e);
       }
+      storeInBuildCache(srcDir);
     }
     else {
       info("Skipping PHP XML code generation because everything appears up-to-date.");
@@ -198,14 +199,18 @@ public class PHPXMLClientModule extends BasicGeneratingModule implements ApiFeat
     packageDir.mkdirs();
 
     File bundle = new File(packageDir, getBundleFileName());
-    boolean anyFiles = bundle.exists();
-    if (!isUpToDateWithSources(packageDir)) {
+    boolean anyFiles;
+    if (!isUpToDateWithSources(packageDir) && !restoreFromBuildCache(packageDir)) {
       try {
         anyFiles = enunciate.zip(bundle, srcDir);
       }
       catch (IOException e) {
         throw new EnunciateException(e);
       }
+      storeInBuildCache(packageDir);
+    }
+    else {
+      anyFiles = bundle.exists();
     }
 
     if (anyFiles) {
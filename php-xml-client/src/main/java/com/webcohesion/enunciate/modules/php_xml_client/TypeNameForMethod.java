@@ -98,7 +98,7 @@ public class TypeNameForMethod extends com.webcohesion.enunciate.util.freemarker
       return convert(adapterType.getAdaptingType());
     }
 
-    String convertedPackage = convertPackage(this.context.getProcessingEnvironment().getElementUtils().getPackageOf(declaration));
+    String convertedPackage = convertPackage(packageOf(declaration));
     ClientName specifiedName = declaration.getAnnotation(ClientName.class);
     String simpleName = specifiedName == null ? declaration.getSimpleName().toString() : specifiedName.value();
     return "\\" + convertedPackage + getPackageSeparator() + simpleName;
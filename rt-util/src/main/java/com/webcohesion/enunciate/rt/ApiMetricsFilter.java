@@ -0,0 +1,173 @@
+/**
+ * Copyright © 2006-2016 Web Cohesion (info@webcohesion.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webcohesion.enunciate.rt;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.servlet.*;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.net.URL;
+import java.util.*;
+import java.util.logging.Logger;
+
+/**
+ * Filter that matches each request to the documented API operation it invokes (using the route table generated by
+ * Enunciate) and records the operation's metrics, which are exposed through JMX.<br/>
+ * <br/>
+ * Init parameters:
+ * <ul>
+ * <li><tt>routes</tt>: the classpath resource of the route table. Defaults to <tt>/jaxrs-routes.list</tt>.</li>
+ * <li><tt>jmx-domain</tt>: the JMX domain of the metrics beans. Defaults to <tt>com.webcohesion.enunciate</tt>. Set
+ * it to an empty value to not register the beans.</li>
+ * </ul>
+ *
+ * @author Ryan Heaton
+ */
+public class ApiMetricsFilter implements Filter {
+
+  private static Logger LOG = Logger.getLogger(ApiMetricsFilter.class.getName());
+
+  private final ApiRouteMatcher matcher = new ApiRouteMatcher();
+  private final Map<ApiRoute, ApiOperationMetrics> metrics = new LinkedHashMap<ApiRoute, ApiOperationMetrics>();
+  private final List<ObjectName> registeredNames = new ArrayList<ObjectName>();
+
+  public void init(FilterConfig filterConfig) throws ServletException {
+    String routes = filterConfig.getInitParameter("routes");
+    if (routes == null) {
+      routes = "/jaxrs-routes.list";
+    }
+
+    for (ApiRoute route : loadRoutes(routes)) {
+      if (this.matcher.add(route)) {
+        this.metrics.put(route, new ApiOperationMetrics(route));
+      }
+      else {
+        LOG.fine("Ignoring duplicate API route " + route);
+      }
+    }
+
+    String domain = filterConfig.getInitParameter("jmx-domain");
+    if (domain == null) {
+      domain = "com.webcohesion.enunciate";
+    }
+
+    if (!domain.isEmpty()) {
+      registerMBeans(domain);
+    }
+  }
+
+  protected List<ApiRoute> loadRoutes(String resource) {
+    List<ApiRoute> routes = new ArrayList<ApiRoute>();
+    ClassLoader classloader = Thread.currentThread().getContextClassLoader();
+    try {
+      Enumeration<URL> routeLists = classloader.getResources(resource);
+      while (routeLists.hasMoreElements()) {
+        URL routeList = routeLists.nextElement();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(routeList.openStream(), "utf-8"));
+        try {
+          String line = reader.readLine();
+          while (line != null) {
+            ApiRoute route = ApiRoute.parse(line);
+            if (route != null) {
+              routes.add(route);
+            }
+            line = reader.readLine();
+          }
+        }
+        finally {
+          reader.close();
+        }
+      }
+    }
+    catch (IOException e) {
+      LOG.warning("Unable to read all API routes (" + e.getMessage() + ")");
+    }
+    return routes;
+  }
+
+  protected void registerMBeans(String domain) {
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    for (ApiOperationMetrics operationMetrics : this.metrics.values()) {
+      try {
+        ObjectName name = new ObjectName(domain + ":type=ApiOperation,name=" + ObjectName.quote(operationMetrics.getOperationId() + " " + operationMetrics.getHttpMethod()));
+        if (!server.isRegistered(name)) {
+          server.registerMBean(operationMetrics, name);
+          this.registeredNames.add(name);
+        }
+      }
+      catch (Exception e) {
+        LOG.warning("Unable to register the metrics of API operation " + operationMetrics.getOperationId() + " (" + e.getMessage() + ")");
+      }
+    }
+  }
+
+  public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse, FilterChain chain) throws IOException, ServletException {
+    ApiOperationMetrics operationMetrics = null;
+    if (servletRequest instanceof HttpServletRequest) {
+      HttpServletRequest request = (HttpServletRequest) servletRequest;
+      String path = request.getRequestURI();
+      String contextPath = request.getContextPath();
+      if (contextPath != null && path.startsWith(contextPath)) {
+        path = path.substring(contextPath.length());
+      }
+
+      ApiRoute route = this.matcher.match(request.getMethod(), path);
+      operationMetrics = route == null ? null : this.metrics.get(route);
+    }
+
+    if (operationMetrics == null) {
+      chain.doFilter(servletRequest, servletResponse);
+      return;
+    }
+
+    long start = System.nanoTime();
+    boolean error = true;
+    try {
+      chain.doFilter(servletRequest, servletResponse);
+      error = servletResponse instanceof HttpServletResponse && ((HttpServletResponse) servletResponse).getStatus() >= 500;
+    }
+    finally {
+      operationMetrics.record(System.nanoTime() - start, error);
+    }
+  }
+
+  /**
+   * The metrics of each documented API operation.
+   *
+   * @return The metrics of each documented API operation.
+   */
+  public Collection<ApiOperationMetrics> getMetrics() {
+    return Collections.unmodifiableCollection(this.metrics.values());
+  }
+
+  public void destroy() {
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    for (ObjectName name : this.registeredNames) {
+      try {
+        server.unregisterMBean(name);
+      }
+      catch (Exception e) {
+        //fall through...
+      }
+    }
+    this.registeredNames.clear();
+  }
+}
@@ -0,0 +1,162 @@
+/**
+ * Copyright © 2006-2016 Web Cohesion (info@webcohesion.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webcohesion.enunciate.rt;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The metrics of a documented API operation: request and error counts, plus a latency histogram with power-of-two
+ * microsecond buckets (so percentiles are accurate to within a factor of two). All the counters are lock-free.
+ *
+ * @author Ryan Heaton
+ */
+public class ApiOperationMetrics implements ApiOperationMetricsMBean {
+
+  private static final int BUCKETS = 40;
+
+  private final ApiRoute route;
+  private final AtomicLong requests = new AtomicLong();
+  private final AtomicLong errors = new AtomicLong();
+  private final AtomicLong totalNanos = new AtomicLong();
+  private final AtomicLong maxNanos = new AtomicLong();
+  private final AtomicLongArray latencies = new AtomicLongArray(BUCKETS);
+
+  public ApiOperationMetrics(ApiRoute route) {
+    this.route = route;
+  }
+
+  /**
+   * Record a request.
+   *
+   * @param nanos The latency of the request, in nanoseconds.
+   * @param error Whether the request failed.
+   */
+  public void record(long nanos, boolean error) {
+    this.requests.incrementAndGet();
+    if (error) {
+      this.errors.incrementAndGet();
+    }
+    this.totalNanos.addAndGet(nanos);
+
+    long max = this.maxNanos.get();
+    while (nanos > max && !this.maxNanos.compareAndSet(max, nanos)) {
+      max = this.maxNanos.get();
+    }
+
+    this.latencies.incrementAndGet(bucketOf(nanos / 1000));
+  }
+
+  static int bucketOf(long micros) {
+    int bucket = 64 - Long.numberOfLeadingZeros(micros);
+    return Math.min(bucket, BUCKETS - 1);
+  }
+
+  public ApiRoute getRoute() {
+    return route;
+  }
+
+  @Override
+  public String getOperationId() {
+    return this.route.getOperationId();
+  }
+
+  @Override
+  public String getHttpMethod() {
+    return this.route.getHttpMethod();
+  }
+
+  @Override
+  public String getPath() {
+    return this.route.getPath();
+  }
+
+  @Override
+  public long getRequestCount() {
+    return this.requests.get();
+  }
+
+  @Override
+  public long getErrorCount() {
+    return this.errors.get();
+  }
+
+  @Override
+  public long getMeanLatencyMicros() {
+    long requests = this.requests.get();
+    return requests == 0 ? 0 : this.totalNanos.get() / requests / 1000;
+  }
+
+  @Override
+  public long getMaxLatencyMicros() {
+    return this.maxNanos.get() / 1000;
+  }
+
+  @Override
+  public long getMedianLatencyMicros() {
+    return getLatencyPercentileMicros(0.5);
+  }
+
+  @Override
+  public long getPercentile95LatencyMicros() {
+    return getLatencyPercentileMicros(0.95);
+  }
+
+  @Override
+  public long getPercentile99LatencyMicros() {
+    return getLatencyPercentileMicros(0.99);
+  }
+
+  /**
+   * The (upper bound of the) specified latency percentile.
+   *
+   * @param percentile The percentile (between 0 and 1).
+   * @return The upper bound of the percentile, in microseconds.
+   */
+  public long getLatencyPercentileMicros(double percentile) {
+    long[] counts = new long[BUCKETS];
+    long total = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      counts[i] = this.latencies.get(i);
+      total += counts[i];
+    }
+
+    if (total == 0) {
+      return 0;
+    }
+
+    long threshold = (long) Math.ceil(total * percentile);
+    long count = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      count += counts[i];
+      if (count >= threshold && counts[i] > 0) {
+        return i == 0 ? 0 : (1L << i) - 1;
+      }
+    }
+    return getMaxLatencyMicros();
+  }
+
+  @Override
+  public void reset() {
+    this.requests.set(0);
+    this.errors.set(0);
+    this.totalNanos.set(0);
+    this.maxNanos.set(0);
+    for (int i = 0; i < BUCKETS; i++) {
+      this.latencies.set(i, 0);
+    }
+  }
+}
@@ -0,0 +1,98 @@
+/**
+ * Copyright © 2006-2016 Web Cohesion (info@webcohesion.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webcohesion.enunciate.rt;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A documented API operation, as listed in the route table (<tt>jaxrs-routes.list</tt>) generated by Enunciate. Each
+ * line of the route table is tab-separated: the HTTP method, the path template, the operation id (the same id used by
+ * the documentation), the comma-separated produced media types and the comma-separated consumed media types.
+ *
+ * @author Ryan Heaton
+ */
+public class ApiRoute {
+
+  private final String httpMethod;
+  private final String path;
+  private final String operationId;
+  private final List<String> produces;
+  private final List<String> consumes;
+
+  public ApiRoute(String httpMethod, String path, String operationId, List<String> produces, List<String> consumes) {
+    this.httpMethod = httpMethod;
+    this.path = path;
+    this.operationId = operationId;
+    this.produces = produces;
+    this.consumes = consumes;
+  }
+
+  /**
+   * Parse a route from a line of the route table.
+   *
+   * @param line The line.
+   * @return The route, or null if the line isn't a route (e.g. a blank line).
+   */
+  public static ApiRoute parse(String line) {
+    String[] fields = line.split("\t", -1);
+    if (fields.length < 3 || fields[0].trim().isEmpty()) {
+      return null;
+    }
+
+    return new ApiRoute(fields[0].trim(), fields[1].trim(), fields[2].trim(), parseList(fields, 3), parseList(fields, 4));
+  }
+
+  private static List<String> parseList(String[] fields, int index) {
+    if (fields.length <= index || fields[index].trim().isEmpty()) {
+      return Collections.emptyList();
+    }
+
+    List<String> values = new ArrayList<String>();
+    for (String value : fields[index].split(",")) {
+      if (!value.trim().isEmpty()) {
+        values.add(value.trim());
+      }
+    }
+    return Collections.unmodifiableList(values);
+  }
+
+  public String getHttpMethod() {
+    return httpMethod;
+  }
+
+  public String getPath() {
+    return path;
+  }
+
+  public String getOperationId() {
+    return operationId;
+  }
+
+  public List<String> getProduces() {
+    return produces;
+  }
+
+  public List<String> getConsumes() {
+    return consumes;
+  }
+
+  @Override
+  public String toString() {
+    return this.httpMethod + " " + this.path;
+  }
+}
@@ -0,0 +1,362 @@
+/**
+ * Copyright © 2006-2016 Web Cohesion (info@webcohesion.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webcohesion.enunciate.rt;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Matches requests to documented API routes using a tree of path segments, so the routes aren't tried one by one.
+ * Literal segments take precedence over segments that mix literals and templates (e.g. "{id}.json"), which take
+ * precedence over template segments (e.g. "{id}"), which take precedence over template segments that can span several
+ * segments (e.g. "{path: .*}"). A segment that spans several segments consumes as few of them as it can, so the
+ * segments that follow it are matched. A template segment matches any single request segment; the regular expressions
+ * of the path are only evaluated to choose between routes of the same method and shape.<br/>
+ * <br/>
+ * Routes must all be added before the matcher is used; matching is then thread-safe.
+ *
+ * @author Ryan Heaton
+ */
+public class ApiRouteMatcher {
+
+  private final Node root = new Node();
+
+  /**
+   * Add a route.
+   *
+   * @param route The route.
+   * @return Whether the route was added (false if a route with the same method and path template was already added).
+   */
+  public boolean add(ApiRoute route) {
+    Node node = this.root;
+    for (String segment : templateSegments(route.getPath())) {
+      if (segment.indexOf('{') < 0) {
+        Node child = node.literals.get(segment);
+        if (child == null) {
+          child = new Node();
+          node.literals.put(segment, child);
+        }
+        node = child;
+      }
+      else if (!isTemplate(segment)) {
+        MixedSegment child = node.mixed.get(segment);
+        if (child == null) {
+          child = new MixedSegment(Pattern.compile(segmentRegex(segment)));
+          node.mixed.put(segment, child);
+        }
+        node = child.node;
+      }
+      else if (isMultiSegment(segment)) {
+        if (node.multiSegment == null) {
+          node.multiSegment = new Node();
+        }
+        node = node.multiSegment;
+      }
+      else {
+        if (node.template == null) {
+          node.template = new Node();
+        }
+        node = node.template;
+      }
+    }
+
+    List<RouteEntry> routes = node.routes.get(route.getHttpMethod());
+    if (routes == null) {
+      routes = new ArrayList<RouteEntry>(1);
+      node.routes.put(route.getHttpMethod(), routes);
+    }
+
+    RouteEntry entry = new RouteEntry(route, Pattern.compile(pathRegex(route.getPath())));
+    for (RouteEntry existing : routes) {
+      if (existing.pattern.pattern().equals(entry.pattern.pattern())) {
+        return false;
+      }
+    }
+    routes.add(entry);
+    return true;
+  }
+
+  /**
+   * Find the route matching the specified request.
+   *
+   * @param httpMethod The HTTP method of the request.
+   * @param path The path of the request (relative to the servlet context).
+   * @return The matching route, or null if no route matches.
+   */
+  public ApiRoute match(String httpMethod, String path) {
+    ApiRoute route = match(this.root, httpMethod, path, skipSlashes(path, 0));
+    if (route == null && "HEAD".equals(httpMethod)) {
+      route = match(this.root, "GET", path, skipSlashes(path, 0));
+    }
+    return route;
+  }
+
+  private ApiRoute match(Node node, String httpMethod, String path, int start) {
+    if (start >= path.length()) {
+      return select(node.routes.get(httpMethod), path);
+    }
+
+    int end = segmentEnd(path, start);
+    int next = skipSlashes(path, end);
+
+    if (!node.literals.isEmpty()) {
+      Node literal = node.literals.get(path.substring(start, end));
+      if (literal != null) {
+        ApiRoute route = match(literal, httpMethod, path, next);
+        if (route != null) {
+          return route;
+        }
+      }
+    }
+
+    if (!node.mixed.isEmpty()) {
+      String segment = path.substring(start, end);
+      for (MixedSegment mixed : node.mixed.values()) {
+        if (mixed.pattern.matcher(segment).matches()) {
+          ApiRoute route = match(mixed.node, httpMethod, path, next);
+          if (route != null) {
+            return route;
+          }
+        }
+      }
+    }
+
+    if (node.template != null) {
+      ApiRoute route = match(node.template, httpMethod, path, next);
+      if (route != null) {
+        return route;
+      }
+    }
+
+    if (node.multiSegment != null) {
+      //the multi-segment template consumes as few segments as it can, so the segments that follow it are matched.
+      while (true) {
+        ApiRoute route = match(node.multiSegment, httpMethod, path, next);
+        if (route != null || next >= path.length()) {
+          return route;
+        }
+        next = skipSlashes(path, segmentEnd(path, next));
+      }
+    }
+
+    return null;
+  }
+
+  /**
+   * Select the route for a request from the routes of a node (for a method).
+   *
+   * @param routes The routes.
+   * @param path The path of the request.
+   * @return The route, or null if none.
+   */
+  private static ApiRoute select(List<RouteEntry> routes, String path) {
+    if (routes == null) {
+      return null;
+    }
+    else if (routes.size() == 1) {
+      return routes.get(0).route;
+    }
+
+    //the routes differ only by the regular expressions of their templates.
+    for (RouteEntry entry : routes) {
+      if (entry.pattern.matcher(path).matches()) {
+        return entry.route;
+      }
+    }
+    return null;
+  }
+
+  private static int segmentEnd(String path, int start) {
+    int end = path.indexOf('/', start);
+    return end < 0 ? path.length() : end;
+  }
+
+  private static int skipSlashes(String path, int index) {
+    while (index < path.length() && path.charAt(index) == '/') {
+      index++;
+    }
+    return index;
+  }
+
+  /**
+   * Split a path template into its segments. Slashes inside a template segment's regular expression don't split it.
+   *
+   * @param path The path template.
+   * @return The segments.
+   */
+  static List<String> templateSegments(String path) {
+    List<String> segments = new ArrayList<String>();
+    StringBuilder segment = new StringBuilder();
+    int inBrace = 0;
+    for (int i = 0; i < path.length(); i++) {
+      char ch = path.charAt(i);
+      if (ch == '{') {
+        inBrace++;
+      }
+      else if (ch == '}') {
+        inBrace--;
+      }
+
+      if (ch == '/' && inBrace == 0) {
+        if (segment.length() > 0) {
+          segments.add(segment.toString());
+          segment.setLength(0);
+        }
+      }
+      else if (inBrace > 0 || !Character.isWhitespace(ch)) {
+        segment.append(ch);
+      }
+    }
+
+    if (segment.length() > 0) {
+      segments.add(segment.toString());
+    }
+    return segments;
+  }
+
+  /**
+   * Whether the specified template segment is a single template parameter (e.g. "{id}", but not "{id}.json").
+   *
+   * @param segment The template segment.
+   * @return Whether the segment is a single template parameter.
+   */
+  static boolean isTemplate(String segment) {
+    if (segment.isEmpty() || segment.charAt(0) != '{') {
+      return false;
+    }
+
+    int depth = 0;
+    for (int i = 0; i < segment.length(); i++) {
+      char ch = segment.charAt(i);
+      if (ch == '{') {
+        depth++;
+      }
+      else if (ch == '}') {
+        depth--;
+        if (depth == 0) {
+          return i == segment.length() - 1;
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Whether the specified template segment can match more than one request segment, i.e. whether it's a template
+   * parameter with a regular expression that can match a slash.
+   *
+   * @param segment The template segment.
+   * @return Whether the segment can match more than one request segment.
+   */
+  static boolean isMultiSegment(String segment) {
+    int colon = segment.indexOf(':');
+    if (colon < 0) {
+      return false;
+    }
+
+    String regex = segment.substring(colon + 1);
+    return regex.contains(".*") || regex.contains(".+") || regex.indexOf('/') >= 0;
+  }
+
+  /**
+   * The regular expression of a path template, allowing for repeated, leading and trailing slashes.
+   *
+   * @param path The path template.
+   * @return The regular expression.
+   */
+  static String pathRegex(String path) {
+    StringBuilder regex = new StringBuilder("/*");
+    List<String> segments = templateSegments(path);
+    for (int i = 0; i < segments.size(); i++) {
+      if (i > 0) {
+        regex.append("/+");
+      }
+      regex.append(segmentRegex(segments.get(i)));
+    }
+    return regex.append("/*").toString();
+  }
+
+  /**
+   * The regular expression of a template segment. A template parameter without a regular expression matches a
+   * single request segment.
+   *
+   * @param segment The template segment.
+   * @return The regular expression.
+   */
+  static String segmentRegex(String segment) {
+    StringBuilder regex = new StringBuilder();
+    int depth = 0;
+    int literalStart = 0;
+    int paramStart = 0;
+    for (int i = 0; i < segment.length(); i++) {
+      char ch = segment.charAt(i);
+      if (ch == '{') {
+        if (depth == 0) {
+          if (i > literalStart) {
+            regex.append(Pattern.quote(segment.substring(literalStart, i)));
+          }
+          paramStart = i + 1;
+        }
+        depth++;
+      }
+      else if (ch == '}') {
+        depth--;
+        if (depth == 0) {
+          String param = segment.substring(paramStart, i);
+          int colon = param.indexOf(':');
+          regex.append("(?:").append(colon < 0 ? "[^/]+" : param.substring(colon + 1).trim()).append(')');
+          literalStart = i + 1;
+        }
+      }
+    }
+
+    if (literalStart < segment.length()) {
+      regex.append(Pattern.quote(segment.substring(literalStart)));
+    }
+    return regex.toString();
+  }
+
+  private static class Node {
+    final Map<String, Node> literals = new HashMap<String, Node>(4);
+    final Map<String, MixedSegment> mixed = new LinkedHashMap<String, MixedSegment>(2);
+    final Map<String, List<RouteEntry>> routes = new HashMap<String, List<RouteEntry>>(4);
+    Node template;
+    Node multiSegment;
+  }
+
+  private static class MixedSegment {
+    final Pattern pattern;
+    final Node node = new Node();
+
+    MixedSegment(Pattern pattern) {
+      this.pattern = pattern;
+    }
+  }
+
+  private static class RouteEntry {
+    final ApiRoute route;
+    final Pattern pattern;
+
+    RouteEntry(ApiRoute route, Pattern pattern) {
+      this.route = route;
+      this.pattern = pattern;
+    }
+  }
+}
@@ -0,0 +1,154 @@
+/**
+ * Copyright © 2006-2016 Web Cohesion (info@webcohesion.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webcohesion.enunciate.rt;
+
+import junit.framework.TestCase;
+
+import java.util.Arrays;
+
+/**
+ * @author Ryan Heaton
+ */
+public class TestApiRouteMatcher extends TestCase {
+
+  /**
+   * tests matching requests to routes.
+   */
+  public void testMatch() throws Exception {
+    ApiRoute getPerson = ApiRoute.parse("GET\t/api/persons/{id}\tpersons_getPerson_GET\tapplication/json,application/xml\t");
+    ApiRoute deletePerson = ApiRoute.parse("DELETE\t/api/persons/{id: [0-9]+}\tpersons_deletePerson_DELETE\t\t");
+    ApiRoute getSelf = ApiRoute.parse("GET\t/api/persons/me\tpersons_getSelf_GET\tapplication/json\t");
+    ApiRoute getFile = ApiRoute.parse("GET\t/api/files/{path: .*}\tfiles_getFile_GET\t\t");
+    ApiRoute getRoot = ApiRoute.parse("GET\t/api\troot_get_GET\t\t");
+    assertNull(ApiRoute.parse(""));
+    assertEquals(Arrays.asList("application/json", "application/xml"), getPerson.getProduces());
+    assertTrue(getPerson.getConsumes().isEmpty());
+
+    ApiRouteMatcher matcher = new ApiRouteMatcher();
+    for (ApiRoute route : Arrays.asList(getPerson, deletePerson, getSelf, getFile, getRoot)) {
+      matcher.add(route);
+    }
+
+    assertSame(getPerson, matcher.match("GET", "/api/persons/123"));
+    assertSame(getPerson, matcher.match("GET", "/api/persons/123/"));
+    assertSame(getPerson, matcher.match("HEAD", "/api/persons/123"));
+    assertSame(deletePerson, matcher.match("DELETE", "/api/persons/123"));
+    assertSame(getSelf, matcher.match("GET", "/api/persons/me"));
+    assertSame(getFile, matcher.match("GET", "/api/files/some/deep/file.txt"));
+    assertSame(getRoot, matcher.match("GET", "/api"));
+    assertNull(matcher.match("POST", "/api/persons/123"));
+    assertNull(matcher.match("GET", "/api/persons/123/children"));
+    assertNull(matcher.match("GET", "/other"));
+  }
+
+  /**
+   * tests matching segments that mix literals and templates.
+   */
+  public void testMatchMixedSegments() throws Exception {
+    ApiRoute getPerson = ApiRoute.parse("GET\t/api/persons/{id}\tpersons_getPerson_GET\t\t");
+    ApiRoute getPersonJson = ApiRoute.parse("GET\t/api/persons/{id}.json\tpersons_getPersonJson_GET\t\t");
+    ApiRoute getInfo = ApiRoute.parse("GET\t/api/v{version}/info\tinfo_getInfo_GET\t\t");
+    ApiRoute getRange = ApiRoute.parse("GET\t/api/ranges/{from: [0-9]+}-{to: [0-9]+}\tranges_getRange_GET\t\t");
+
+    ApiRouteMatcher matcher = new ApiRouteMatcher();
+    for (ApiRoute route : Arrays.asList(getPerson, getPersonJson, getInfo, getRange)) {
+      assertTrue(matcher.add(route));
+    }
+
+    assertSame(getPersonJson, matcher.match("GET", "/api/persons/123.json"));
+    assertSame(getPerson, matcher.match("GET", "/api/persons/123"));
+    assertSame(getPerson, matcher.match("GET", "/api/persons/123.xml"));
+    assertSame(getInfo, matcher.match("GET", "/api/v2/info"));
+    assertNull(matcher.match("GET", "/api/2/info"));
+    assertNull(matcher.match("GET", "/api/v/info"));
+    assertSame(getRange, matcher.match("GET", "/api/ranges/1-10"));
+    assertNull(matcher.match("GET", "/api/ranges/a-b"));
+  }
+
+  /**
+   * tests matching literal segments after a template that can span several segments.
+   */
+  public void testMatchAfterMultiSegment() throws Exception {
+    ApiRoute getFile = ApiRoute.parse("GET\t/api/files/{path: .*}\tfiles_getFile_GET\t\t");
+    ApiRoute getFileMeta = ApiRoute.parse("GET\t/api/files/{path: .*}/meta\tfiles_getFileMeta_GET\t\t");
+    ApiRoute getFileVersion = ApiRoute.parse("GET\t/api/files/{path: .*}/versions/{version}\tfiles_getFileVersion_GET\t\t");
+
+    ApiRouteMatcher matcher = new ApiRouteMatcher();
+    for (ApiRoute route : Arrays.asList(getFile, getFileMeta, getFileVersion)) {
+      assertTrue(matcher.add(route));
+    }
+
+    assertSame(getFileMeta, matcher.match("GET", "/api/files/a/b/meta"));
+    assertSame(getFileMeta, matcher.match("GET", "/api/files/a/meta/"));
+    assertSame(getFileVersion, matcher.match("GET", "/api/files/a/b/versions/3"));
+    assertSame(getFile, matcher.match("GET", "/api/files/a/b"));
+    assertSame(getFile, matcher.match("GET", "/api/files/a/b/meta/c"));
+    assertSame(getFileMeta, matcher.match("GET", "/api/files/meta/meta"));
+    assertSame(getFileMeta, matcher.match("GET", "/api/files/meta/meta/meta"));
+  }
+
+  /**
+   * tests routes that share the same shape.
+   */
+  public void testDuplicateRoutes() throws Exception {
+    ApiRoute getById = ApiRoute.parse("GET\t/api/persons/{id: [0-9]+}\tpersons_getById_GET\t\t");
+    ApiRoute getByName = ApiRoute.parse("GET\t/api/persons/{name: [a-z]+}\tpersons_getByName_GET\t\t");
+    ApiRoute duplicate = ApiRoute.parse("GET\t/api//persons/{id: [0-9]+}/\tpersons_getById2_GET\t\t");
+
+    ApiRouteMatcher matcher = new ApiRouteMatcher();
+    assertTrue(matcher.add(getById));
+    assertTrue("routes that differ by their regular expressions should both be added", matcher.add(getByName));
+    assertFalse("a route with the same method and path template shouldn't be added", matcher.add(duplicate));
+
+    assertSame(getById, matcher.match("GET", "/api/persons/123"));
+    assertSame(getByName, matcher.match("GET", "/api/persons/fred"));
+    assertNull(matcher.match("GET", "/api/persons/Fred"));
+  }
+
+  /**
+   * tests splitting path templates.
+   */
+  public void testTemplateSegments() throws Exception {
+    assertEquals(Arrays.asList("a", "{b: [a-z]/[0-9]}", "c"), ApiRouteMatcher.templateSegments("/a//{b: [a-z]/[0-9]}/c/"));
+    assertTrue(ApiRouteMatcher.isMultiSegment("{path: .*}"));
+    assertFalse(ApiRouteMatcher.isMultiSegment("{id: [0-9]+}"));
+    assertFalse(ApiRouteMatcher.isMultiSegment("{id}"));
+    assertTrue(ApiRouteMatcher.isTemplate("{id: [0-9]{3}}"));
+    assertFalse(ApiRouteMatcher.isTemplate("{id}.json"));
+    assertFalse(ApiRouteMatcher.isTemplate("v{version}"));
+    assertFalse(ApiRouteMatcher.isTemplate("{from}-{to}"));
+  }
+
+  /**
+   * tests the operation metrics.
+   */
+  public void testMetrics() throws Exception {
+    ApiOperationMetrics metrics = new ApiOperationMetrics(ApiRoute.parse("GET\t/api/persons/{id}\tpersons_getPerson_GET"));
+    metrics.record(500, false); //0 micros
+    metrics.record(3000, false); //3 micros
+    metrics.record(3000000, true); //3 millis
+    assertEquals(3, metrics.getRequestCount());
+    assertEquals(1, metrics.getErrorCount());
+    assertEquals(3000, metrics.getMaxLatencyMicros());
+    assertEquals(1001, metrics.getMeanLatencyMicros());
+    assertEquals(3, metrics.getMedianLatencyMicros());
+    assertEquals(4095, metrics.getPercentile99LatencyMicros());
+    metrics.reset();
+    assertEquals(0, metrics.getRequestCount());
+    assertEquals(0, metrics.getPercentile99LatencyMicros());
+  }
+
+}
@@ -181,7 +181,7 @@ public class RubyJSONClientModule extends BasicGeneratingModule implements ApiFe
 
     model.put("isFacetExcluded", new IsFacetExcludedMethod(facetFilter));
 
-    if (!isUpToDateWithSources(srcDir)) {
+    if (!isUpToDateWithSources(srcDir) && !restoreFromBuildCache(srcDir)) {
       debug("Generating the Ruby JSON data classes...");
       URL apiTemplate = getTemplateURL("api.fmt");
       try {
@@ -193,6 +193,7 @@ public class RubyJSONClientModule extends BasicGeneratingModule implements ApiFe
       catch (TemplateException e) {
         throw new EnunciateException(e);
       }
+      storeInBuildCache(srcDir);
     }
     else {
       info("Skipping Ruby code generation because everything appears up-to-date.");
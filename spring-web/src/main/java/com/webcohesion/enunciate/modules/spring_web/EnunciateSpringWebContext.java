@@ -56,6 +56,7 @@ public class EnunciateSpringWebContext extends EnunciateModuleContext implements
   private InterfaceDescriptionFile wadlFile = null;
   private PathSortStrategy pathSortStrategy = PathSortStrategy.breadth_first;
   private final boolean disableExamples;
+  private volatile List<ResourceGroup> frozenResourceGroups;
 
   public EnunciateSpringWebContext(EnunciateContext context, boolean disableExamples) {
     super(context);
@@ -122,6 +123,19 @@ public class EnunciateSpringWebContext extends EnunciateModuleContext implements
 
   @Override
   public List<ResourceGroup> getResourceGroups() {
+    List<ResourceGroup> resourceGroups = this.frozenResourceGroups;
+    if (resourceGroups == null) {
+      resourceGroups = gatherResourceGroups();
+      if (this.context.getApiRegistry().isFrozen()) {
+        //the model is frozen; the resource groups won't change anymore.
+        resourceGroups = Collections.unmodifiableList(resourceGroups);
+        this.frozenResourceGroups = resourceGroups;
+      }
+    }
+    return resourceGroups;
+  }
+
+  protected List<ResourceGroup> gatherResourceGroups() {
     List<ResourceGroup> resourceGroups;
     if (this.groupingStrategy == GroupingStrategy.path) {
       //group resources by path.
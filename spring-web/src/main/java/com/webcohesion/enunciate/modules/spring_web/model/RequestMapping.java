@@ -16,6 +16,7 @@
 package com.webcohesion.enunciate.modules.spring_web.model;
 
 import com.webcohesion.enunciate.facets.Facet;
+import com.webcohesion.enunciate.facets.FacetSet;
 import com.webcohesion.enunciate.facets.HasFacets;
 import com.webcohesion.enunciate.javac.decorations.TypeMirrorDecorator;
 import com.webcohesion.enunciate.javac.decorations.element.DecoratedExecutableElement;
@@ -55,6 +56,7 @@ public class RequestMapping extends DecoratedExecutableElement implements HasFac
 
   private final EnunciateSpringWebContext context;
   private final List<PathSegment> pathSegments;
+  private volatile String fullpath;
   private final String label;
   private final Set<String> httpMethods;
   private final Set<String> consumesMediaTypes;
@@ -67,7 +69,7 @@ public class RequestMapping extends DecoratedExecutableElement implements HasFac
   private final List<? extends ResponseCode> warnings;
   private final Map<String, String> responseHeaders = new HashMap<String, String>();
   private final ResourceRepresentationMetadata representationMetadata;
-  private final Set<Facet> facets = new TreeSet<Facet>();
+  private final Set<Facet> facets = new FacetSet();
 
   public RequestMapping(List<PathSegment> pathSegments, RequestMethod[] methods, String[] consumesInfo, String[] producesInfo, ExecutableElement delegate, SpringController parent, TypeVariableContext variableContext, EnunciateSpringWebContext context) {
     super(delegate, context.getContext().getProcessingEnvironment());
@@ -538,11 +540,16 @@ public class RequestMapping extends DecoratedExecutableElement implements HasFac
    * @return the full URI path to this resource method.
    */
   public String getFullpath() {
-    StringBuilder builder = new StringBuilder();
-    for (PathSegment pathSegment : getPathSegments()) {
-      builder.append(pathSegment.getValue());
+    String fullpath = this.fullpath;
+    if (fullpath == null) {
+      StringBuilder builder = new StringBuilder();
+      for (PathSegment pathSegment : getPathSegments()) {
+        builder.append(pathSegment.getValue());
+      }
+      fullpath = builder.toString();
+      this.fullpath = fullpath;
     }
-    return builder.toString();
+    return fullpath;
   }
 
   /**
@@ -16,6 +16,7 @@
 package com.webcohesion.enunciate.modules.spring_web.model;
 
 import com.webcohesion.enunciate.facets.Facet;
+import com.webcohesion.enunciate.facets.FacetSet;
 import com.webcohesion.enunciate.facets.HasFacets;
 import com.webcohesion.enunciate.javac.decorations.element.DecoratedTypeElement;
 import com.webcohesion.enunciate.javac.decorations.type.TypeVariableContext;
@@ -45,7 +46,7 @@ public class SpringController extends DecoratedTypeElement implements HasFacets
   private final Set<String> producesMime;
   private final org.springframework.web.bind.annotation.RequestMapping mappingInfo;
   private final List<RequestMapping> requestMappings;
-  private final Set<Facet> facets = new TreeSet<Facet>();
+  private final Set<Facet> facets = new FacetSet();
 
   public SpringController(TypeElement delegate, EnunciateSpringWebContext context) {
     this(delegate, delegate.getAnnotation(org.springframework.web.bind.annotation.RequestMapping.class), context);
@@ -0,0 +1,127 @@
+/**
+ * Copyright © 2006-2016 Web Cohesion (info@webcohesion.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webcohesion.enunciate.modules.swagger;
+
+import com.webcohesion.enunciate.util.IfChangedFileWriter;
+
+import java.io.*;
+
+/**
+ * A writer that tees everything written to it to a {@link SwaggerJsonValidator} running on its own thread, so
+ * the JSON is validated as it streams out instead of being read back in after it's written.
+ *
+ * @author Ryan Heaton
+ */
+public class JsonValidatingWriter extends Writer {
+
+  private static final int PIPE_SIZE = 64 * 1024;
+
+  private final Writer delegate;
+  private final File file;
+  private final PipedWriter pipe;
+  private final SwaggerJsonValidator validator;
+  private final Thread validatorThread;
+
+  public JsonValidatingWriter(Writer delegate, File file, boolean validateStructure) throws IOException {
+    this.delegate = delegate;
+    this.file = file;
+    PipedReader reader = new PipedReader(PIPE_SIZE);
+    this.pipe = new PipedWriter(reader);
+    this.validator = new SwaggerJsonValidator(reader, validateStructure);
+    this.validatorThread = new Thread(this.validator, "swagger-json-validator");
+    this.validatorThread.setDaemon(true);
+    this.validatorThread.start();
+  }
+
+  @Override
+  public void write(char[] chars, int off, int len) throws IOException {
+    this.delegate.write(chars, off, len);
+    this.pipe.write(chars, off, len);
+  }
+
+  @Override
+  public void flush() throws IOException {
+    this.delegate.flush();
+    this.pipe.flush();
+  }
+
+  /**
+   * Closes the writer and waits for the validation to finish. The validator is stopped even if closing the delegate
+   * fails.
+   *
+   * @throws IOException If the written JSON is invalid.
+   */
+  @Override
+  public void close() throws IOException {
+    try {
+      this.delegate.close();
+    }
+    finally {
+      this.pipe.close();
+      try {
+        this.validatorThread.join();
+      }
+      catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Interrupted while validating " + this.file.getAbsolutePath());
+      }
+    }
+
+    Exception error = this.validator.getError();
+    if (error != null) {
+      throw new IOException(String.format("Invalid JSON in %s: %s", this.file.getAbsolutePath(), error.getMessage()), error);
+    }
+  }
+
+  /**
+   * Stops the validator without validating or writing anything, e.g. because the content failed to render. The
+   * delegate is discarded if it's an {@link IfChangedFileWriter}, and closed otherwise.
+   */
+  public void discard() {
+    try {
+      if (this.delegate instanceof IfChangedFileWriter) {
+        ((IfChangedFileWriter) this.delegate).discard();
+      }
+      else {
+        this.delegate.close();
+      }
+    }
+    catch (IOException e) {
+      //fall through; the content is being discarded anyway.
+    }
+    finally {
+      try {
+        this.pipe.close();
+        this.validatorThread.join();
+      }
+      catch (IOException e) {
+        //fall through...
+      }
+      catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  /**
+   * The time (in milliseconds) the validator spent parsing, not counting the time it spent waiting for output.
+   *
+   * @return The time (in milliseconds) spent validating.
+   */
+  public long getValidationTime() {
+    return this.validator.getElapsed();
+  }
+}
@@ -15,8 +15,6 @@
  */
 package com.webcohesion.enunciate.modules.swagger;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.webcohesion.enunciate.EnunciateConfiguration;
 import com.webcohesion.enunciate.EnunciateContext;
 import com.webcohesion.enunciate.EnunciateException;
@@ -25,7 +23,6 @@ import com.webcohesion.enunciate.api.InterfaceDescriptionFile;
 import com.webcohesion.enunciate.api.resources.ResourceApi;
 import com.webcohesion.enunciate.artifacts.FileArtifact;
 import com.webcohesion.enunciate.module.*;
-import com.webcohesion.enunciate.util.freemarker.FileDirective;
 import freemarker.cache.URLTemplateLoader;
 import freemarker.core.Environment;
 import freemarker.template.Configuration;
@@ -133,7 +130,8 @@ public class SwaggerDeploymentModule extends BasicGeneratingModule implements Ap
       Map<String, Object> model = new HashMap<String, Object>();
       model.put("apis", this.resourceApis);
       model.put("syntaxes", apiRegistry.getSyntaxes());
-      model.put("file", new FileDirective(srcDir, SwaggerDeploymentModule.this.enunciate.getLogger()));
+      SwaggerFileDirective fileDirective = new SwaggerFileDirective(srcDir, SwaggerDeploymentModule.this.enunciate.getLogger(), !isDisableValidation(), isValidateStructure());
+      model.put("file", fileDirective);
       model.put("projectVersion", enunciate.getConfiguration().getVersion());
       model.put("projectTitle", enunciate.getConfiguration().getTitle());
       model.put("projectDescription", enunciate.getConfiguration().readDescription(context));
@@ -161,23 +159,12 @@ public class SwaggerDeploymentModule extends BasicGeneratingModule implements Ap
         throw new EnunciateException(e);
       }
 
-      Set<File> jsonFilesToValidate = new HashSet<File>();
-      gatherJsonFiles(jsonFilesToValidate, srcDir);
-      ObjectMapper mapper = new ObjectMapper();
-      for (File file : jsonFilesToValidate) {
-        FileReader reader = new FileReader(file);
-        try {
-          mapper.readTree(reader);
-        }
-        catch (JsonProcessingException e) {
-          warn("Error processing %s.", file.getAbsolutePath());
-          throw e;
-        }
-        finally {
-          reader.close();
-        }
+      if (fileDirective.getValidatedFiles() > 0) {
+        info("Validated %s Swagger JSON file(s) in %s ms.", fileDirective.getValidatedFiles(), fileDirective.getValidationTime());
       }
 
+      debug("Wrote %s Swagger file(s); skipped %s unchanged file(s).", fileDirective.getWrittenFiles(), fileDirective.getSkippedFiles());
+
       FileArtifact swaggerArtifact = new FileArtifact(getName(), "swagger", srcDir);
       swaggerArtifact.setPublic(false);
       SwaggerDeploymentModule.this.enunciate.addArtifact(swaggerArtifact);
@@ -304,20 +291,6 @@ public class SwaggerDeploymentModule extends BasicGeneratingModule implements Ap
     }
   }
 
-  private void gatherJsonFiles(Set<File> bucket, File buildDir) {
-    File[] files = buildDir.listFiles();
-    if (files != null) {
-      for (File file : files) {
-        if (file.getName().endsWith(".json")) {
-          bucket.add(file);
-        }
-        else if (file.isDirectory()) {
-          gatherJsonFiles(bucket, file);
-        }
-      }
-    }
-  }
-
   /**
    * Loads the default base for the swagger ui.
    *
@@ -368,6 +341,25 @@ public class SwaggerDeploymentModule extends BasicGeneratingModule implements Ap
     return facetExcludes;
   }
 
+  /**
+   * Whether to skip validating the generated JSON files.
+   *
+   * @return Whether to skip validating the generated JSON files.
+   */
+  public boolean isDisableValidation() {
+    return this.config.getBoolean("[@disableValidation]", false);
+  }
+
+  /**
+   * Whether to validate the structure of the generated JSON against the Swagger 2.0 specification (e.g. required
+   * fields, path names, operation responses), in addition to validating that it's well-formed.
+   *
+   * @return Whether to validate the structure of the generated JSON.
+   */
+  public boolean isValidateStructure() {
+    return this.config.getBoolean("[@validateStructure]", false);
+  }
+
   public String getDocsSubdir() {
     return this.config.getString("[@docsSubdir]", "ui");
   }
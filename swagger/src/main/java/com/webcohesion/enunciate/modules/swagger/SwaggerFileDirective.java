@@ -0,0 +1,89 @@
+/**
+ * Copyright © 2006-2016 Web Cohesion (info@webcohesion.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webcohesion.enunciate.modules.swagger;
+
+import com.webcohesion.enunciate.EnunciateLogger;
+import com.webcohesion.enunciate.util.freemarker.FileDirective;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * File directive that validates the JSON files as they're written.
+ *
+ * @author Ryan Heaton
+ */
+public class SwaggerFileDirective extends FileDirective {
+
+  private final EnunciateLogger logger;
+  private final boolean validate;
+  private final boolean validateStructure;
+  private int validatedFiles = 0;
+  private long validationTime = 0;
+
+  public SwaggerFileDirective(File outputDir, EnunciateLogger logger, boolean validate, boolean validateStructure) {
+    super(outputDir, logger);
+    this.logger = logger;
+    this.validate = validate;
+    this.validateStructure = validateStructure;
+  }
+
+  @Override
+  protected Writer openWriter(final File output, String charset) throws IOException {
+    Writer writer = super.openWriter(output, charset);
+    if (this.validate && output.getName().endsWith(".json")) {
+      writer = new JsonValidatingWriter(writer, output, this.validateStructure) {
+        @Override
+        public void close() throws IOException {
+          super.close();
+          validatedFiles++;
+          validationTime += getValidationTime();
+          logger.debug("Validated %s in %s ms.", output, getValidationTime());
+        }
+      };
+    }
+    return writer;
+  }
+
+  @Override
+  protected void discard(Writer writer) {
+    if (writer instanceof JsonValidatingWriter) {
+      ((JsonValidatingWriter) writer).discard();
+    }
+    else {
+      super.discard(writer);
+    }
+  }
+
+  /**
+   * The number of JSON files that have been validated.
+   *
+   * @return The number of JSON files that have been validated.
+   */
+  public int getValidatedFiles() {
+    return validatedFiles;
+  }
+
+  /**
+   * The total time (in milliseconds) spent validating JSON files.
+   *
+   * @return The total time (in milliseconds) spent validating JSON files.
+   */
+  public long getValidationTime() {
+    return validationTime;
+  }
+}
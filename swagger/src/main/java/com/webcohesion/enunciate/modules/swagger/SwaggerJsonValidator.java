@@ -0,0 +1,210 @@
+/**
+ * Copyright © 2006-2016 Web Cohesion (info@webcohesion.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webcohesion.enunciate.modules.swagger;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.*;
+
+/**
+ * Validates a stream of JSON token-by-token (without building a tree), optionally applying some structural checks
+ * from the Swagger 2.0 specification.
+ *
+ * @author Ryan Heaton
+ */
+public class SwaggerJsonValidator implements Runnable {
+
+  private static final Set<String> OPERATION_NAMES = new TreeSet<String>(Arrays.asList("get", "put", "post", "delete", "options", "head", "patch"));
+
+  private final WaitTimingReader reader;
+  private final boolean validateStructure;
+  private volatile Exception error;
+  private volatile long elapsed;
+
+  public SwaggerJsonValidator(Reader reader, boolean validateStructure) {
+    this.reader = new WaitTimingReader(reader);
+    this.validateStructure = validateStructure;
+  }
+
+  /**
+   * The validation error, if any.
+   *
+   * @return The validation error, or null if the JSON is valid.
+   */
+  public Exception getError() {
+    return error;
+  }
+
+  /**
+   * The time (in milliseconds) spent validating, not counting the time spent waiting for the JSON to be written.
+   *
+   * @return The time (in milliseconds) spent validating.
+   */
+  public long getElapsed() {
+    return elapsed;
+  }
+
+  @Override
+  public void run() {
+    long start = System.nanoTime();
+    try {
+      JsonFactory factory = new JsonFactory();
+      factory.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+      JsonParser parser = factory.createParser(this.reader);
+      try {
+        validate(parser);
+      }
+      finally {
+        parser.close();
+      }
+    }
+    catch (Exception e) {
+      this.error = e;
+    }
+    finally {
+      drain();
+      this.elapsed = (System.nanoTime() - start - this.reader.waiting) / 1000000L;
+    }
+  }
+
+  protected void validate(JsonParser parser) throws IOException {
+    LinkedList<String> path = new LinkedList<String>();
+    Set<String> rootFields = new TreeSet<String>();
+    boolean operationHasResponses = false;
+    String fieldName = null;
+    int rootValues = 0;
+
+    JsonToken token = parser.nextToken();
+    while (token != null) {
+      if (this.validateStructure) {
+        int depth = path.size();
+        switch (token) {
+          case FIELD_NAME:
+            fieldName = parser.getCurrentName();
+            if (depth == 1) {
+              rootFields.add(fieldName);
+            }
+            else if (depth == 2 && "paths".equals(path.get(1)) && !fieldName.startsWith("/") && !fieldName.startsWith("x-")) {
+              throw new JsonParseException(String.format("Invalid path '%s': paths must begin with '/'.", fieldName), parser.getCurrentLocation());
+            }
+            else if (depth == 4 && "paths".equals(path.get(1)) && OPERATION_NAMES.contains(path.get(3)) && "responses".equals(fieldName)) {
+              operationHasResponses = true;
+            }
+            break;
+          case START_OBJECT:
+          case START_ARRAY:
+            if (depth == 0) {
+              rootValues++;
+              if (rootValues > 1) {
+                throw new JsonParseException("Multiple root values.", parser.getCurrentLocation());
+              }
+              if (token != JsonToken.START_OBJECT) {
+                throw new JsonParseException("Root value must be an object.", parser.getCurrentLocation());
+              }
+            }
+            else if (depth == 3 && "paths".equals(path.get(1)) && OPERATION_NAMES.contains(fieldName)) {
+              operationHasResponses = false;
+            }
+            path.add(fieldName == null ? "" : fieldName);
+            fieldName = null;
+            break;
+          case END_OBJECT:
+          case END_ARRAY:
+            if (depth == 4 && "paths".equals(path.get(1)) && OPERATION_NAMES.contains(path.get(3)) && !operationHasResponses) {
+              throw new JsonParseException(String.format("Operation '%s' of path '%s' has no responses.", path.get(3), path.get(2)), parser.getCurrentLocation());
+            }
+            path.removeLast();
+            fieldName = null;
+            break;
+          default:
+            if (depth == 0) {
+              throw new JsonParseException("Root value must be an object.", parser.getCurrentLocation());
+            }
+            else if (depth == 1 && "swagger".equals(fieldName) && !"2.0".equals(parser.getText())) {
+              throw new JsonParseException(String.format("Unsupported swagger version '%s'.", parser.getText()), parser.getCurrentLocation());
+            }
+            fieldName = null;
+        }
+      }
+
+      token = parser.nextToken();
+    }
+
+    if (this.validateStructure) {
+      for (String required : Arrays.asList("swagger", "info", "paths")) {
+        if (!rootFields.contains(required)) {
+          throw new JsonParseException(String.format("Missing required field '%s'.", required), parser.getCurrentLocation());
+        }
+      }
+    }
+  }
+
+  /**
+   * Drain the rest of the reader so the writing side never blocks on an abandoned pipe.
+   */
+  private void drain() {
+    char[] buffer = new char[1024 * 8];
+    try {
+      while (this.reader.read(buffer) >= 0) {
+        //no-op.
+      }
+      this.reader.close();
+    }
+    catch (IOException e) {
+      //fall through...
+    }
+  }
+
+  /**
+   * Keeps track of the time spent blocked reading, i.e. waiting for the writer.
+   */
+  private static class WaitTimingReader extends FilterReader {
+
+    private long waiting = 0;
+
+    private WaitTimingReader(Reader in) {
+      super(in);
+    }
+
+    @Override
+    public int read() throws IOException {
+      long start = System.nanoTime();
+      try {
+        return super.read();
+      }
+      finally {
+        this.waiting += System.nanoTime() - start;
+      }
+    }
+
+    @Override
+    public int read(char[] chars, int off, int len) throws IOException {
+      long start = System.nanoTime();
+      try {
+        return super.read(chars, off, len);
+      }
+      finally {
+        this.waiting += System.nanoTime() - start;
+      }
+    }
+  }
+}